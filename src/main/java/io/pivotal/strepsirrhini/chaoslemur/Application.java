@@ -18,15 +18,21 @@ package io.pivotal.strepsirrhini.chaoslemur;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolExecutorFactoryBean;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 import java.security.SecureRandom;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Main entry point and configuration class
@@ -46,21 +52,69 @@ public class Application {
     }
 
     @Bean(destroyMethod = "shutdown")
-    ThreadPoolExecutorFactoryBean executor() {
+    @ConditionalOnProperty(name = "threads.mode", havingValue = "platform", matchIfMissing = true)
+    ThreadPoolExecutorFactoryBean destructionExecutor(@Value("${destruction.parallelism:10}") Integer parallelism,
+                                                      @Value("${destruction.queueCapacity:100}") Integer queueCapacity) {
         ThreadPoolExecutorFactoryBean factoryBean = new ThreadPoolExecutorFactoryBean();
-        factoryBean.setQueueCapacity(5);
-        factoryBean.setCorePoolSize(5);
-        factoryBean.setMaxPoolSize(20);
-        factoryBean.setThreadNamePrefix("destroyer-");
+        factoryBean.setCorePoolSize(parallelism);
+        factoryBean.setMaxPoolSize(parallelism);
+        factoryBean.setQueueCapacity(queueCapacity);
+        factoryBean.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        factoryBean.setThreadNamePrefix("destruction-");
 
         return factoryBean;
     }
 
+    @Bean
+    ExecutorMetrics destructionExecutorMetrics(@Qualifier("destructionExecutor") ExecutorService destructionExecutor) {
+        return new ExecutorMetrics(destructionExecutor, "executor.destruction");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "random.mode", havingValue = "deterministic")
+    DeterministicRandomSource deterministicRandomSource(Random random, @Value("${random.seed:}") String seed) {
+        return new DeterministicRandomSource(random, toSeed(seed));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "threads.mode", havingValue = "platform", matchIfMissing = true)
+    ThreadPoolExecutorFactoryBean discoveryExecutor(@Value("${discovery.parallelism:10}") Integer parallelism) {
+        ThreadPoolExecutorFactoryBean factoryBean = new ThreadPoolExecutorFactoryBean();
+        factoryBean.setCorePoolSize(parallelism);
+        factoryBean.setMaxPoolSize(parallelism);
+        factoryBean.setThreadNamePrefix("discovery-");
+
+        return factoryBean;
+    }
+
+    @Bean
+    ExecutorMetrics discoveryExecutorMetrics(@Qualifier("discoveryExecutor") ExecutorService discoveryExecutor) {
+        return new ExecutorMetrics(discoveryExecutor, "executor.discovery");
+    }
+
     @Bean
     ObjectMapper objectMapper() {
         return new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
+    @Bean(destroyMethod = "shutdown")
+    ThreadPoolExecutorFactoryBean orchestrationExecutor(@Value("${orchestration.parallelism:2}") Integer parallelism,
+                                                        @Value("${orchestration.queueCapacity:0}") Integer queueCapacity) {
+        ThreadPoolExecutorFactoryBean factoryBean = new ThreadPoolExecutorFactoryBean();
+        factoryBean.setCorePoolSize(parallelism);
+        factoryBean.setMaxPoolSize(parallelism);
+        factoryBean.setQueueCapacity(queueCapacity);
+        factoryBean.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        factoryBean.setThreadNamePrefix("orchestration-");
+
+        return factoryBean;
+    }
+
+    @Bean
+    ExecutorMetrics orchestrationExecutorMetrics(@Qualifier("orchestrationExecutor") ExecutorService orchestrationExecutor) {
+        return new ExecutorMetrics(orchestrationExecutor, "executor.orchestration");
+    }
+
     @Bean
     Random random() {
         return new SecureRandom();
@@ -71,4 +125,32 @@ public class Application {
         return new RestTemplate();
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "random.mode", havingValue = "secure", matchIfMissing = true)
+    SecureRandomSource secureRandomSource(Random random) {
+        return new SecureRandomSource(random);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "random.mode", havingValue = "splittable")
+    SplittableRandomSource splittableRandomSource(@Value("${random.seed:}") String seed) {
+        return new SplittableRandomSource(toSeed(seed));
+    }
+
+    @Bean(name = "destructionExecutor", destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "threads.mode", havingValue = "virtual")
+    VirtualThreadExecutorService virtualDestructionExecutor(@Value("${destruction.parallelism:10}") Integer parallelism) {
+        return new VirtualThreadExecutorService(parallelism, "destruction-");
+    }
+
+    @Bean(name = "discoveryExecutor", destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "threads.mode", havingValue = "virtual")
+    VirtualThreadExecutorService virtualDiscoveryExecutor(@Value("${discovery.parallelism:10}") Integer parallelism) {
+        return new VirtualThreadExecutorService(parallelism, "discovery-");
+    }
+
+    private static Long toSeed(String seed) {
+        return StringUtils.hasText(seed) ? Long.valueOf(seed.trim()) : null;
+    }
+
 }
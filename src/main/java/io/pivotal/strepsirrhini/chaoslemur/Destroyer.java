@@ -29,6 +29,7 @@ import io.pivotal.strepsirrhini.chaoslemur.task.Trigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -40,52 +41,75 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 final class Destroyer {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final Boolean dryRun;
+    private final ExecutorService destructionExecutor;
 
-    private final ExecutorService executorService;
+    private final Boolean dryRun;
 
     private final FateEngine fateEngine;
 
     private final Infrastructure infrastructure;
 
+    private final ExecutorService orchestrationExecutor;
+
+    private final Pacer pacer;
+
+    private final RandomSource randomSource;
+
     private final Reporter reporter;
 
     private final StateProvider stateProvider;
 
+    private final Boolean streaming;
+
     private final TaskRepository taskRepository;
 
     private final TaskUriBuilder taskUriBuilder;
 
     @Autowired
-    Destroyer(@Value("${dryRun:false}") Boolean dryRun,
-              ExecutorService executorService,
+    Destroyer(@Qualifier("destructionExecutor") ExecutorService destructionExecutor,
+              @Value("${dryRun:false}") Boolean dryRun,
               FateEngine fateEngine,
               Infrastructure infrastructure,
+              @Qualifier("orchestrationExecutor") ExecutorService orchestrationExecutor,
+              Pacer pacer,
+              RandomSource randomSource,
               Reporter reporter,
               StateProvider stateProvider,
               @Value("${schedule:0 0 * * * *}") String schedule,
+              @Value("${streaming:false}") Boolean streaming,
               TaskRepository taskRepository,
               TaskUriBuilder taskUriBuilder) {
         this.logger.info("Destruction schedule: {}", schedule);
 
+        this.destructionExecutor = destructionExecutor;
         this.dryRun = dryRun;
-        this.executorService = executorService;
         this.fateEngine = fateEngine;
         this.infrastructure = infrastructure;
+        this.orchestrationExecutor = orchestrationExecutor;
+        this.pacer = pacer;
+        this.randomSource = randomSource;
         this.reporter = reporter;
         this.stateProvider = stateProvider;
+        this.streaming = streaming;
         this.taskRepository = taskRepository;
         this.taskUriBuilder = taskUriBuilder;
     }
@@ -116,7 +140,15 @@ final class Destroyer {
 
         if ("destroy".equals(value.toLowerCase())) {
             Task task = this.taskRepository.create(Trigger.MANUAL);
-            this.executorService.execute(() -> doDestroy(task));
+
+            try {
+                this.orchestrationExecutor.execute(() -> doDestroy(task));
+            } catch (RejectedExecutionException e) {
+                this.logger.warn("Rejected manual run, too many runs in progress");
+                task.stop();
+                return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+
             responseHeaders.setLocation(this.taskUriBuilder.getUri(task));
         } else {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -125,42 +157,173 @@ final class Destroyer {
         return new ResponseEntity<>(responseHeaders, HttpStatus.ACCEPTED);
     }
 
+    private void await(Map<Member, Future<?>> futures, Map<Member, DestructionException> failures) {
+        for (Map.Entry<Member, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (ExecutionException e) {
+                failures.putIfAbsent(entry.getKey(), new DestructionException(String.format("Unable to destroy %s", entry.getKey()), e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                futures.forEach((member, future) -> {
+                    if (future.cancel(true)) {
+                        failures.putIfAbsent(member, interrupted(member, e));
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private Map<Member, DestructionException> destroyPaced(List<Member> victims) {
+        Map<Member, DestructionException> failures = new ConcurrentHashMap<>();
+        Map<Member, Future<?>> futures = new LinkedHashMap<>();
+
+        long[] offsets = this.pacer.getOffsets(victims.size());
+        long start = System.currentTimeMillis();
+
+        for (int i = 0; i < victims.size(); i++) {
+            Member member = victims.get(i);
+
+            try {
+                long delay = start + offsets[i] - System.currentTimeMillis();
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+
+                this.pacer.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                victims.subList(i, victims.size()).forEach(victim -> failures.put(victim, interrupted(victim, e)));
+                break;
+            }
+
+            futures.put(member, submitDestroy(member, failures));
+        }
+
+        await(futures, failures);
+        return failures;
+    }
+
+    private Map<Member, DestructionException> destroySelected(UUID identifier, Long seed, List<Member> victims) {
+        victims.addAll(this.fateEngine.select(this.infrastructure.getMembers(), seed));
+        victims.forEach(member -> this.logger.debug("{} Destroying: {}", identifier, member));
+
+        if (this.dryRun || victims.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return this.pacer.isEnabled() ? destroyPaced(victims) : this.infrastructure.destroyAll(victims);
+    }
+
+    private Map<Member, DestructionException> destroyStreaming(UUID identifier, Long seed, List<Member> victims) {
+        Map<Member, DestructionException> failures = new ConcurrentHashMap<>();
+        Map<Member, Future<?>> futures = new LinkedHashMap<>();
+
+        this.infrastructure.getMembers(member -> {
+            if (!this.fateEngine.shouldDie(member, seed)) {
+                return;
+            }
+
+            this.logger.debug("{} Destroying: {}", identifier, member);
+            victims.add(member);
+
+            if (this.dryRun) {
+                return;
+            }
+
+            try {
+                this.pacer.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(member, interrupted(member, e));
+                return;
+            }
+
+            futures.put(member, submitDestroy(member, failures));
+        });
+
+        await(futures, failures);
+        return failures;
+    }
+
     private void doDestroy(Task task) {
-        List<Member> destroyedMembers = new CopyOnWriteArrayList<>();
+        List<Member> destroyedMembers = new ArrayList<>();
         UUID identifier = UUID.randomUUID();
+        Long seed = this.randomSource.nextSeed();
+        List<Member> victims = new ArrayList<>();
 
         this.logger.info("{} Beginning run...", identifier);
 
-        this.infrastructure.getMembers().stream()
-            .map(member -> this.executorService.submit(() -> {
-                if (this.fateEngine.shouldDie(member)) {
-                    try {
-                        this.logger.debug("{} Destroying: {}", identifier, member);
-
-                        if (this.dryRun) {
-                            this.logger.info("{} Destroyed (Dry Run): {}", identifier, member);
-                        } else {
-                            this.infrastructure.destroy(member);
-                            this.logger.info("{} Destroyed: {}", identifier, member);
-                        }
-
-                        destroyedMembers.add(member);
-                    } catch (DestructionException e) {
-                        this.logger.warn("{} Destroy failed: {}", identifier, member, e);
-                    }
-                }
-            }))
-            .forEach(future -> {
-                try {
-                    future.get();
-                } catch (InterruptedException | ExecutionException e) {
-                    this.logger.warn("{} Failed to destroy member", identifier, e);
+        if (seed != null) {
+            this.logger.info("{} Seed: {}", identifier, seed);
+        }
+
+        try {
+            Map<Member, DestructionException> failures = this.streaming && this.fateEngine.isIncremental() && !this.pacer.isWindowed() ?
+                destroyStreaming(identifier, seed, victims) : destroySelected(identifier, seed, victims);
+
+            for (Member member : victims) {
+                if (failures.containsKey(member)) {
+                    this.logger.warn("{} Destroy failed: {}", identifier, member, failures.get(member));
+                } else {
+                    this.logger.info(this.dryRun ? "{} Destroyed (Dry Run): {}" : "{} Destroyed: {}", identifier, member);
+                    destroyedMembers.add(member);
                 }
-            });
+            }
+        } catch (RuntimeException e) {
+            this.logger.warn("{} Failed to destroy members", identifier, e);
+        }
 
-        this.reporter.sendEvent(new Event(identifier, destroyedMembers));
+        this.reporter.sendEvent(new Event(identifier, destroyedMembers, seed));
 
         task.stop();
     }
 
+    private static DestructionException interrupted(Member member, InterruptedException e) {
+        return new DestructionException(String.format("Interrupted while destroying %s", member), e);
+    }
+
+    /**
+     * Submits the destruction of a member whose pacing permit has already been acquired.  The permit is released once the destroy completes or, if the destroy is cancelled before it starts, when it
+     * is cancelled, so that a cancelled destroy never holds a permit.
+     */
+    private Future<?> submitDestroy(Member member, Map<Member, DestructionException> failures) {
+        AtomicBoolean claimed = new AtomicBoolean();
+
+        Runnable destroy = () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                failures.putAll(this.infrastructure.destroyAll(Collections.singletonList(member)));
+            } catch (RuntimeException e) {
+                failures.put(member, new DestructionException(String.format("Unable to destroy %s", member), e));
+            } finally {
+                this.pacer.release();
+            }
+        };
+
+        FutureTask<Void> task = new FutureTask<Void>(destroy, null) {
+
+            @Override
+            protected void done() {
+                if (isCancelled() && claimed.compareAndSet(false, true)) {
+                    Destroyer.this.pacer.release();
+                }
+            }
+
+        };
+
+        try {
+            this.destructionExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+
+        return task;
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.springframework.util.Assert;
+
+import java.util.Random;
+
+/**
+ * A {@link RandomSource} whose value for a member is a pure function of the run's seed and the member's deployment and name.  The decisions of a run can be replayed exactly by configuring its
+ * seed, regardless of the order in which members are evaluated or the threads that evaluate them.
+ */
+final class DeterministicRandomSource implements RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final float UNIT = 0x1.0p-24f;
+
+    private final Random random;
+
+    private final Long seed;
+
+    /**
+     * Creates an instance
+     *
+     * @param random the {@link Random} used to choose the seed of each run when no seed is configured
+     * @param seed   the seed used for every run or {@code null} to choose a new seed for each run
+     */
+    DeterministicRandomSource(Random random, Long seed) {
+        this.random = random;
+        this.seed = seed;
+    }
+
+    @Override
+    public float nextFloat(Member member, Long seed) {
+        Assert.notNull(seed, "seed must not be null");
+
+        long hash = mix(seed + GOLDEN_GAMMA * member.getDeployment().hashCode());
+        hash = mix(hash + GOLDEN_GAMMA * member.getName().hashCode());
+
+        return (hash >>> 40) * UNIT;
+    }
+
+    @Override
+    public Long nextSeed() {
+        return this.seed != null ? this.seed : this.random.nextLong();
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
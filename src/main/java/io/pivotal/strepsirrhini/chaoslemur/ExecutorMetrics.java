@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Reports the number of active tasks, completed tasks, and queued tasks of an executor, along with its maximum size.  Supports both {@link ThreadPoolExecutor}s and {@link
+ * VirtualThreadExecutorService}s.
+ */
+final class ExecutorMetrics implements PublicMetrics {
+
+    private final ExecutorService executor;
+
+    private final String prefix;
+
+    ExecutorMetrics(ExecutorService executor, String prefix) {
+        if (!(executor instanceof ThreadPoolExecutor || executor instanceof VirtualThreadExecutorService)) {
+            throw new IllegalArgumentException(String.format("Unable to report metrics of %s", executor.getClass().getName()));
+        }
+
+        this.executor = executor;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        if (this.executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) this.executor;
+            return metrics(executor.getActiveCount(), executor.getCompletedTaskCount(), executor.getMaximumPoolSize(), executor.getQueue().size());
+        } else {
+            VirtualThreadExecutorService executor = (VirtualThreadExecutorService) this.executor;
+            return metrics(executor.getActiveCount(), executor.getCompletedTaskCount(), executor.getMaximumPoolSize(), executor.getQueuedCount());
+        }
+    }
+
+    private Collection<Metric<?>> metrics(int active, long completed, int max, int queued) {
+        return Arrays.<Metric<?>>asList(
+            new Metric<>(String.format("%s.active", this.prefix), active),
+            new Metric<>(String.format("%s.completed", this.prefix), completed),
+            new Metric<>(String.format("%s.max", this.prefix), max),
+            new Metric<>(String.format("%s.queued", this.prefix), queued));
+    }
+
+}
@@ -16,14 +16,48 @@
 
 package io.pivotal.strepsirrhini.chaoslemur;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 interface FateEngine {
 
+    /**
+     * Determines which {@link Member}s of an inventory should die, in a single pass over the inventory
+     *
+     * @param members The {@link Member}s to evaluate
+     * @param seed    The seed of the run, as returned by {@link RandomSource#nextSeed()}
+     * @return The {@link Member}s that should die
+     */
+    default List<Member> select(Collection<Member> members, Long seed) {
+        List<Member> victims = new ArrayList<>();
+
+        for (Member member : members) {
+            if (shouldDie(member, seed)) {
+                victims.add(member);
+            }
+        }
+
+        return victims;
+    }
+
+    /**
+     * Returns whether {@link #select(Collection, Long)} decides the fate of each {@link Member} independently with {@link #shouldDie(Member, Long)}, so that members can be decided as they are
+     * discovered rather than once the whole inventory is known.  By default, this is {@code true}.
+     *
+     * @return whether members can be decided as they are discovered
+     */
+    default boolean isIncremental() {
+        return true;
+    }
+
     /**
      * Determines whether a {@link Member} should live or die
      *
      * @param member The {@link Member} to evaluate
+     * @param seed   The seed of the run, as returned by {@link RandomSource#nextSeed()}
      * @return Whether a member should live or die
      */
-    Boolean shouldDie(Member member);
+    Boolean shouldDie(Member member, Long seed);
 
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The maximum number of members of a single job that may be destroyed in a run.  The limit is either an absolute number, e.g. {@code 1}, or a percentage of the number of members of the job,
+ * rounded down, e.g. {@code 50%}.  A blank limit does not limit the number of members destroyed.
+ */
+final class JobLimit {
+
+    private final Float percentage;
+
+    private final Integer value;
+
+    /**
+     * Creates an instance
+     *
+     * @param limit the limit as an absolute number, a percentage ending in {@code %}, or blank for no limit
+     */
+    JobLimit(String limit) {
+        String trimmed = limit == null ? "" : limit.trim();
+
+        if (!StringUtils.hasText(trimmed)) {
+            this.percentage = null;
+            this.value = null;
+        } else if (trimmed.endsWith("%")) {
+            this.percentage = Float.parseFloat(trimmed.substring(0, trimmed.length() - 1).trim());
+            this.value = null;
+            Assert.isTrue(this.percentage >= 0, "percentage must not be negative");
+        } else {
+            this.percentage = null;
+            this.value = Integer.parseInt(trimmed);
+            Assert.isTrue(this.value >= 0, "value must not be negative");
+        }
+    }
+
+    /**
+     * Returns the maximum number of members of a job that may be destroyed
+     *
+     * @param size the number of members of the job
+     * @return the maximum number of members of the job that may be destroyed
+     */
+    int get(int size) {
+        if (this.value != null) {
+            return Math.min(this.value, size);
+        }
+
+        if (this.percentage != null) {
+            return (int) (size * this.percentage / 100);
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns whether the number of members destroyed is limited
+     *
+     * @return whether the number of members destroyed is limited
+     */
+    boolean isLimited() {
+        return this.value != null || this.percentage != null;
+    }
+
+    @Override
+    public String toString() {
+        if (this.value != null) {
+            return this.value.toString();
+        }
+
+        return this.percentage != null ? String.format("%s%%", this.percentage) : "unlimited";
+    }
+
+}
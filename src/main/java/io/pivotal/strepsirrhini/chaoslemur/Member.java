@@ -18,19 +18,31 @@ package io.pivotal.strepsirrhini.chaoslemur;
 
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Represents a running instance
  */
 public final class Member implements Comparable<Member> {
 
+    private final String az;
+
     private final String deployment;
 
     private final String id;
 
+    private final List<String> ips;
+
     private final String job;
 
     private final String name;
 
+    private final boolean resurrectionPaused;
+
+    private final String state;
+
     /**
      * Creates an instance
      *
@@ -40,15 +52,36 @@ public final class Member implements Comparable<Member> {
      * @param name       the name of the {@link Member}
      */
     public Member(String id, String deployment, String job, String name) {
+        this(id, deployment, job, name, null, Collections.emptyList(), null, false);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param id                 the ID of the {@link Member}
+     * @param deployment         the deployment the {@link Member} belongs to
+     * @param job                the job the {@link Member} belongs to
+     * @param name               the name of the {@link Member}
+     * @param az                 the availability zone the {@link Member} is placed in, if known
+     * @param ips                the IP addresses of the {@link Member}
+     * @param state              the state of the {@link Member}'s job as reported by the Director, such as {@code running} or {@code unresponsive}, if known
+     * @param resurrectionPaused whether the Director will not recreate the {@link Member} if it is destroyed
+     */
+    public Member(String id, String deployment, String job, String name, String az, List<String> ips, String state, boolean resurrectionPaused) {
         Assert.hasText(id, "id must have text");
         Assert.hasText(deployment, "deployment must have text");
         Assert.hasText(job, "job must have text");
         Assert.hasText(name, "name must have text");
+        Assert.notNull(ips, "ips must not be null");
 
         this.id = id;
         this.deployment = deployment;
         this.job = job;
         this.name = name;
+        this.az = az;
+        this.ips = Collections.unmodifiableList(new ArrayList<>(ips));
+        this.state = state;
+        this.resurrectionPaused = resurrectionPaused;
     }
 
     @Override
@@ -66,6 +99,15 @@ public final class Member implements Comparable<Member> {
         return name == null ? member.name == null : name.equals(member.name);
     }
 
+    /**
+     * Returns the availability zone the {@link Member} is placed in
+     *
+     * @return the availability zone the {@link Member} is placed in, or {@code null} if it is not known
+     */
+    public String getAz() {
+        return this.az;
+    }
+
     /**
      * Returns the deployment the {@link Member} belongs to
      *
@@ -84,6 +126,15 @@ public final class Member implements Comparable<Member> {
         return this.id;
     }
 
+    /**
+     * Returns the IP addresses of the {@link Member}
+     *
+     * @return the IP addresses of the {@link Member}, or an empty list if they are not known
+     */
+    public List<String> getIps() {
+        return this.ips;
+    }
+
     /**
      * Returns the job the {@link Member} belongs to
      *
@@ -102,11 +153,29 @@ public final class Member implements Comparable<Member> {
         return this.name;
     }
 
+    /**
+     * Returns the state of the {@link Member}'s job as reported by the Director
+     *
+     * @return the state of the {@link Member}'s job, such as {@code running} or {@code unresponsive}, or {@code null} if it is not known
+     */
+    public String getState() {
+        return this.state;
+    }
+
     @Override
     public int hashCode() {
         return name != null ? name.hashCode() : 0;
     }
 
+    /**
+     * Returns whether the Director will not recreate the {@link Member} if it is destroyed
+     *
+     * @return whether the Director will not recreate the {@link Member} if it is destroyed
+     */
+    public boolean isResurrectionPaused() {
+        return this.resurrectionPaused;
+    }
+
     @Override
     public String toString() {
         return String.format("[id: %s, deployment: %s, job: %s, name: %s]", this.id, this.deployment, this.job, this.name);
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matches {@link Member}s whose deployment or job appears in a list of names.  The list is compiled once: plain names are case-folded into a {@link Set}, and names containing the glob wildcards
+ * {@code *} or {@code ?} are combined into a single case-insensitive {@link Pattern}, so that matching a member does not depend on the length of the list.
+ */
+final class MemberFilter {
+
+    private final Set<String> names;
+
+    private final Pattern pattern;
+
+    /**
+     * Creates an instance
+     *
+     * @param entries the deployment and job names, optionally containing the glob wildcards {@code *} and {@code ?}
+     */
+    MemberFilter(String[] entries) {
+        Set<String> names = new HashSet<>();
+        List<String> globs = new ArrayList<>();
+
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            if (trimmed.indexOf('*') != -1 || trimmed.indexOf('?') != -1) {
+                globs.add(toRegex(trimmed));
+            } else {
+                names.add(trimmed.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        this.names = Collections.unmodifiableSet(names);
+        this.pattern = globs.isEmpty() ? null : Pattern.compile(String.join("|", globs), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * Returns whether the filter has no entries
+     *
+     * @return whether the filter has no entries
+     */
+    boolean isEmpty() {
+        return this.names.isEmpty() && this.pattern == null;
+    }
+
+    /**
+     * Returns whether the deployment or job of a {@link Member} matches an entry
+     *
+     * @param member the {@link Member} to match
+     * @return whether the deployment or job of the {@link Member} matches an entry
+     */
+    boolean matches(Member member) {
+        return matches(member.getDeployment()) || matches(member.getJob());
+    }
+
+    private boolean matches(String name) {
+        return this.names.contains(name.toLowerCase(Locale.ROOT)) || (this.pattern != null && this.pattern.matcher(name).matches());
+    }
+
+    private static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder("(?:");
+        int start = 0;
+
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+
+            if (c == '*' || c == '?') {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                start = i + 1;
+            }
+        }
+
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+
+        return regex.append(')').toString();
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces the destruction of a run's victims so that the Director can keep up with recreating them.  Destroys are spread across a window with random jitter, started no faster than a token bucket
+ * allows, and limited in the number that may be in flight at once.
+ */
+@Component
+final class Pacer {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Integer burst;
+
+    private final Semaphore inFlight;
+
+    private final Object monitor = new Object();
+
+    private final Double rate;
+
+    private final Long window;
+
+    private long refilled = System.nanoTime();
+
+    private double tokens;
+
+    /**
+     * Creates an instance
+     *
+     * @param burst       the number of destroys that may be started at once after a quiet period
+     * @param maxInFlight the maximum number of destroys in flight at once, or {@code 0} for no limit
+     * @param rate        the maximum number of destroys started per second, or {@code 0} for no limit
+     * @param window      the number of seconds across which the destroys of a run are spread, or {@code 0} to start them immediately
+     */
+    @Autowired
+    Pacer(@Value("${pacing.burst:1}") Integer burst,
+          @Value("${pacing.maxInFlight:0}") Integer maxInFlight,
+          @Value("${pacing.rate:0}") Double rate,
+          @Value("${pacing.window:0}") Long window) {
+
+        this.burst = Math.max(burst, 1);
+        this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+        this.rate = rate;
+        this.tokens = this.burst;
+        this.window = window;
+
+        if (isEnabled()) {
+            this.logger.info("Pacing: {} destroys/s (burst {}), {} in flight, spread over {}s", rate > 0 ? rate : "unlimited", this.burst,
+                maxInFlight > 0 ? maxInFlight : "unlimited", window);
+        }
+    }
+
+    /**
+     * Waits until another destroy may be started.  Every call must be followed by a call to {@link #release()} once the destroy has completed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        if (this.rate > 0) {
+            takeToken();
+        }
+
+        if (this.inFlight != null) {
+            this.inFlight.acquire();
+        }
+    }
+
+    /**
+     * Returns the offsets, in milliseconds from the start of a run, at which each of a number of destroys should be started.  The offsets are spread uniformly at random across the window and are
+     * returned in ascending order.
+     *
+     * @param count the number of destroys
+     * @return the offsets in ascending order
+     */
+    long[] getOffsets(int count) {
+        long[] offsets = new long[count];
+
+        if (this.window > 0) {
+            long window = TimeUnit.SECONDS.toMillis(this.window);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (int i = 0; i < count; i++) {
+                offsets[i] = random.nextLong(window);
+            }
+
+            Arrays.sort(offsets);
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Returns whether destroys are paced at all
+     *
+     * @return whether destroys are paced at all
+     */
+    boolean isEnabled() {
+        return this.rate > 0 || this.inFlight != null || this.window > 0;
+    }
+
+    /**
+     * Returns whether destroys are spread across a window, which requires the number of destroys in a run to be known before the first is started
+     *
+     * @return whether destroys are spread across a window
+     */
+    boolean isWindowed() {
+        return this.window > 0;
+    }
+
+    /**
+     * Signals that a destroy started after {@link #acquire()} has completed
+     */
+    void release() {
+        if (this.inFlight != null) {
+            this.inFlight.release();
+        }
+    }
+
+    private void takeToken() throws InterruptedException {
+        while (true) {
+            long wait;
+
+            synchronized (this.monitor) {
+                long now = System.nanoTime();
+                this.tokens = Math.min(this.burst, this.tokens + (now - this.refilled) * this.rate / TimeUnit.SECONDS.toNanos(1));
+                this.refilled = now;
+
+                if (this.tokens >= 1) {
+                    this.tokens -= 1;
+                    return;
+                }
+
+                wait = (long) ((1 - this.tokens) / this.rate * TimeUnit.SECONDS.toNanos(1));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+}
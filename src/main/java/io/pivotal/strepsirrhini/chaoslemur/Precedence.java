@@ -16,44 +16,53 @@
 
 package io.pivotal.strepsirrhini.chaoslemur;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
-final class Precedence<T> {
+/**
+ * An immutable, ordered chain of candidates that resolves an input to the first non-{@code null} candidate value.  Adding a candidate returns a new chain, so a chain can be built once and then
+ * evaluated concurrently against many inputs without locking.
+ *
+ * @param <S> the type of the input
+ * @param <T> the type of the candidate values
+ */
+final class Precedence<S, T> {
 
-    private final Object monitor = new Object();
+    private final Function<? super S, ? extends T>[] candidates;
 
-    private final List<Supplier<T>> suppliers = new ArrayList<>();
+    @SuppressWarnings("unchecked")
+    Precedence() {
+        this(new Function[0]);
+    }
 
-    Precedence<T> candidate(Supplier<T> supplier) {
-        synchronized (this.monitor) {
-            this.suppliers.add(supplier);
-            return this;
-        }
+    private Precedence(Function<? super S, ? extends T>[] candidates) {
+        this.candidates = candidates;
     }
 
-    Precedence<T> candidate(T value) {
-        return candidate(() -> value);
+    Precedence<S, T> candidate(Function<? super S, ? extends T> candidate) {
+        Function<? super S, ? extends T>[] candidates = Arrays.copyOf(this.candidates, this.candidates.length + 1);
+        candidates[this.candidates.length] = candidate;
+        return new Precedence<>(candidates);
     }
 
-    T get() {
-        return get(Function.<T>identity());
+    Precedence<S, T> candidate(T value) {
+        return candidate(input -> value);
     }
 
-    <U> U get(Function<T, U> f) {
-        synchronized (this.monitor) {
-            for (Supplier<T> supplier : this.suppliers) {
-                T value = supplier.get();
+    T get(S input) {
+        return get(input, Function.<T>identity());
+    }
 
-                if (value != null) {
-                    return f.apply(value);
-                }
-            }
+    <U> U get(S input, Function<? super T, ? extends U> f) {
+        for (Function<? super S, ? extends T> candidate : this.candidates) {
+            T value = candidate.apply(input);
 
-            throw new IllegalStateException("No non-null values supplied");
+            if (value != null) {
+                return f.apply(value);
+            }
         }
+
+        throw new IllegalStateException("No non-null values supplied");
     }
 
 }
@@ -20,59 +20,131 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.Arrays;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Component
 final class RandomFateEngine implements FateEngine {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final String[] blacklist;
+    private final MemberFilter blacklist;
 
-    private final String defaultProbability;
+    private final JobLimit jobLimit;
 
     private final Environment environment;
 
-    private final Random random;
+    private final ConcurrentMap<String, Map<String, Float>> probabilities = new ConcurrentHashMap<>();
 
-    private final String[] whitelist;
+    private final Precedence<Member, String> probability;
+
+    private final RandomSource randomSource;
+
+    private final Integer selectionCount;
+
+    private final SelectionMode selectionMode;
+
+    private final Float selectionPercentage;
+
+    private final MemberFilter whitelist;
 
     @Autowired
     RandomFateEngine(@Value("${blacklist:}") String[] blacklist,
                      @Value("${default.probability:0.2}") Float defaultProbability,
                      Environment environment,
-                     Random random,
+                     @Value("${selection.jobLimit:}") String jobLimit,
+                     RandomSource randomSource,
+                     @Value("${selection.count:1}") Integer selectionCount,
+                     @Value("${selection.mode:probability}") String selectionMode,
+                     @Value("${selection.percentage:20}") Float selectionPercentage,
                      @Value("${whitelist:}") String[] whitelist) {
 
-        this.blacklist = blacklist;
-        this.defaultProbability = defaultProbability.toString();
+        this.blacklist = new MemberFilter(blacklist);
         this.environment = environment;
-        this.random = random;
-        this.whitelist = whitelist;
+        this.jobLimit = new JobLimit(jobLimit);
+        this.probability = new Precedence<Member, String>()
+            .candidate(member -> getProbability(member.getJob()))
+            .candidate(member -> getProbability(member.getDeployment()))
+            .candidate(defaultProbability.toString());
+        this.randomSource = randomSource;
+        this.selectionCount = selectionCount;
+        this.selectionMode = SelectionMode.valueOf(selectionMode.toUpperCase());
+        this.selectionPercentage = selectionPercentage;
+        this.whitelist = new MemberFilter(whitelist);
 
         this.logger.info("Blacklist: {}", StringUtils.arrayToCommaDelimitedString(blacklist));
         this.logger.info("Whitelist: {}", StringUtils.arrayToCommaDelimitedString(whitelist));
         this.logger.info("Default probability: {}", defaultProbability);
+        this.logger.info("Selection mode: {}", this.selectionMode);
+        this.logger.info("Job limit: {}", this.jobLimit);
+    }
+
+    /**
+     * Discards the resolved probabilities so that they are resolved from the {@link Environment} again
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    void clearProbabilities() {
+        this.probabilities.clear();
     }
 
     @Override
-    public Boolean shouldDie(Member member) {
-        if (!isWhitelisted(member) || isBlacklisted(member)) {
+    public boolean isIncremental() {
+        return SelectionMode.PROBABILITY == this.selectionMode && !this.jobLimit.isLimited();
+    }
+
+    @Override
+    public List<Member> select(Collection<Member> members, Long seed) {
+        List<Member> victims;
+
+        switch (this.selectionMode) {
+            case COUNT:
+                victims = selectCount(members, seed);
+                break;
+            case PERCENTAGE:
+                victims = selectPercentage(members, seed);
+                break;
+            default:
+                victims = FateEngine.super.select(members, seed);
+        }
+
+        return this.jobLimit.isLimited() ? limitPerJob(members, victims) : victims;
+    }
+
+    @Override
+    public Boolean shouldDie(Member member, Long seed) {
+        if (!isEligible(member)) {
             return false;
         }
 
-        Float probability = new Precedence<String>()
-            .candidate(() -> getProbability(member.getJob()))
-            .candidate(() -> getProbability(member.getDeployment()))
-            .candidate(this.defaultProbability)
-            .get(Float::parseFloat);
+        return this.randomSource.nextFloat(member, seed) < getProbability(member);
+    }
+
+    private Float getProbability(Member member) {
+        Map<String, Float> jobs = this.probabilities.get(member.getDeployment());
+
+        if (jobs == null) {
+            jobs = this.probabilities.computeIfAbsent(member.getDeployment(), deployment -> new ConcurrentHashMap<>());
+        }
+
+        Float probability = jobs.get(member.getJob());
+
+        if (probability == null) {
+            probability = this.probability.get(member, Float::parseFloat);
+            jobs.putIfAbsent(member.getJob(), probability);
+        }
 
-        return this.random.nextFloat() < probability;
+        return probability;
     }
 
     private String getProbability(String name) {
@@ -84,12 +156,103 @@ final class RandomFateEngine implements FateEngine {
     }
 
     private boolean isBlacklisted(Member member) {
-        return Arrays.stream(this.blacklist)
-            .anyMatch(s -> member.getDeployment().equalsIgnoreCase(s) || member.getJob().equalsIgnoreCase(s));
+        return this.blacklist.matches(member);
+    }
+
+    private boolean isDown(Member member) {
+        return member.getState() != null && !"running".equals(member.getState());
+    }
+
+    private boolean isEligible(Member member) {
+        return isWhitelisted(member) && !isBlacklisted(member) && isHealthy(member);
+    }
+
+    private boolean isHealthy(Member member) {
+        if (member.isResurrectionPaused()) {
+            this.logger.debug("Sparing {}, resurrection is paused", member);
+            return false;
+        }
+
+        if (isDown(member)) {
+            this.logger.debug("Sparing {}, already {}", member, member.getState());
+            return false;
+        }
+
+        return true;
     }
 
     private boolean isWhitelisted(Member member) {
-        return this.whitelist.length == 0 || Arrays.stream(this.whitelist)
-            .anyMatch(s -> member.getDeployment().equalsIgnoreCase(s) || member.getJob().equalsIgnoreCase(s));
+        return this.whitelist.isEmpty() || this.whitelist.matches(member);
+    }
+
+    /**
+     * Limits the victims of each job so that, together with the members of the job that are already down, no more than the job limit are unavailable at once
+     */
+    private List<Member> limitPerJob(Collection<Member> members, List<Member> victims) {
+        Map<String, Map<String, Integer>> sizes = new HashMap<>();
+        Map<String, Map<String, Integer>> down = new HashMap<>();
+
+        for (Member member : members) {
+            sizes.computeIfAbsent(member.getDeployment(), deployment -> new HashMap<>()).merge(member.getJob(), 1, Integer::sum);
+
+            if (isDown(member)) {
+                down.computeIfAbsent(member.getDeployment(), deployment -> new HashMap<>()).merge(member.getJob(), 1, Integer::sum);
+            }
+        }
+
+        List<Member> limited = new ArrayList<>(victims.size());
+
+        for (Member member : victims) {
+            Map<String, Integer> jobs = down.computeIfAbsent(member.getDeployment(), deployment -> new HashMap<>());
+            int count = jobs.getOrDefault(member.getJob(), 0);
+
+            if (count < this.jobLimit.get(sizes.get(member.getDeployment()).get(member.getJob()))) {
+                jobs.put(member.getJob(), count + 1);
+                limited.add(member);
+            } else {
+                this.logger.debug("Sparing {} to stay within job limit of {}", member, this.jobLimit);
+            }
+        }
+
+        return limited;
+    }
+
+    private List<Member> selectCount(Collection<Member> members, Long seed) {
+        ReservoirSampler<Member> sampler = new ReservoirSampler<>(this.selectionCount);
+
+        for (Member member : members) {
+            if (isEligible(member)) {
+                sampler.offer(this.randomSource.nextFloat(member, seed), member);
+            }
+        }
+
+        return sampler.getSample();
+    }
+
+    private List<Member> selectPercentage(Collection<Member> members, Long seed) {
+        Map<String, Map<String, Integer>> sizes = new HashMap<>();
+
+        for (Member member : members) {
+            if (isEligible(member)) {
+                sizes.computeIfAbsent(member.getDeployment(), deployment -> new HashMap<>()).merge(member.getJob(), 1, Integer::sum);
+            }
+        }
+
+        Map<String, Map<String, ReservoirSampler<Member>>> samplers = new HashMap<>();
+        sizes.forEach((deployment, jobs) -> {
+            Map<String, ReservoirSampler<Member>> jobSamplers = new HashMap<>();
+            jobs.forEach((job, size) -> jobSamplers.put(job, new ReservoirSampler<>((int) (size * this.selectionPercentage / 100))));
+            samplers.put(deployment, jobSamplers);
+        });
+
+        for (Member member : members) {
+            if (isEligible(member)) {
+                samplers.get(member.getDeployment()).get(member.getJob()).offer(this.randomSource.nextFloat(member, seed), member);
+            }
+        }
+
+        List<Member> victims = new ArrayList<>();
+        samplers.values().forEach(jobSamplers -> jobSamplers.values().forEach(sampler -> victims.addAll(sampler.getSample())));
+        return victims;
     }
 }
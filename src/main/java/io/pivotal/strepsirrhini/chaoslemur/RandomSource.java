@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+/**
+ * A source of the random values that decide the fate of {@link Member}s
+ */
+interface RandomSource {
+
+    /**
+     * Returns the seed for a new run.  Runs with the same seed make the same decisions about the same members.
+     *
+     * @return the seed for a new run or {@code null} if the decisions of a run cannot be replayed
+     */
+    Long nextSeed();
+
+    /**
+     * Returns a value uniformly distributed between {@code 0.0} (inclusive) and {@code 1.0} (exclusive) for a {@link Member}
+     *
+     * @param member the {@link Member} the value is for
+     * @param seed   the seed of the run, as returned by {@link #nextSeed()}
+     * @return a value uniformly distributed between {@code 0.0} (inclusive) and {@code 1.0} (exclusive)
+     */
+    float nextFloat(Member member, Long seed);
+
+}
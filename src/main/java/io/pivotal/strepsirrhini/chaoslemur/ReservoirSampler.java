@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Samples a fixed number of items uniformly from a stream of items of unknown length, using {@code O(k)} memory.  Each item is offered with a uniformly distributed key and the items with the
+ * smallest keys are kept, so that the sample depends only on the keys and not on the order in which items are offered.
+ *
+ * @param <T> the type of the items
+ */
+final class ReservoirSampler<T> {
+
+    private final int capacity;
+
+    private final PriorityQueue<Entry<T>> entries;
+
+    /**
+     * Creates an instance
+     *
+     * @param capacity the number of items to sample
+     */
+    ReservoirSampler(int capacity) {
+        this.capacity = capacity;
+        this.entries = new PriorityQueue<>(Math.max(capacity, 1), Comparator.<Entry<T>>comparingDouble(entry -> entry.key).reversed());
+    }
+
+    /**
+     * Returns the sampled items
+     *
+     * @return the sampled items
+     */
+    List<T> getSample() {
+        List<T> sample = new ArrayList<>(this.entries.size());
+        this.entries.forEach(entry -> sample.add(entry.item));
+        return sample;
+    }
+
+    /**
+     * Offers an item to the sample
+     *
+     * @param key  a value uniformly distributed between {@code 0.0} and {@code 1.0} for the item
+     * @param item the item
+     */
+    void offer(float key, T item) {
+        if (this.entries.size() < this.capacity) {
+            this.entries.add(new Entry<>(key, item));
+        } else if (this.capacity > 0 && key < this.entries.peek().key) {
+            this.entries.poll();
+            this.entries.add(new Entry<>(key, item));
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+
+        private final float key;
+
+        private Entry(float key, T item) {
+            this.item = item;
+            this.key = key;
+        }
+
+    }
+
+}
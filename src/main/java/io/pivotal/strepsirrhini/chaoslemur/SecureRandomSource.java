@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import java.util.Random;
+
+/**
+ * A {@link RandomSource} that draws every value from a shared {@link Random}, typically a {@link java.security.SecureRandom}.  Runs cannot be replayed.
+ */
+final class SecureRandomSource implements RandomSource {
+
+    private final Random random;
+
+    SecureRandomSource(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public float nextFloat(Member member, Long seed) {
+        return this.random.nextFloat();
+    }
+
+    @Override
+    public Long nextSeed() {
+        return null;
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+/**
+ * The ways in which victims can be selected from an inventory <ul> <li>{@link #COUNT}</li> <li>{@link #PERCENTAGE}</li> <li>{@link #PROBABILITY}</li> </ul>
+ */
+enum SelectionMode {
+
+    /**
+     * A fixed number of eligible members is selected uniformly at random
+     */
+    COUNT,
+
+    /**
+     * At most a fixed percentage of the eligible members of each job is selected uniformly at random
+     */
+    PERCENTAGE,
+
+    /**
+     * Each eligible member is selected independently with its configured probability
+     */
+    PROBABILITY
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link RandomSource} that gives each thread its own {@link SplittableRandom}, split from a single root generator, so that threads never contend or block on entropy.  Runs cannot be replayed
+ * because the values a member receives depend on the order in which threads draw them.
+ */
+final class SplittableRandomSource implements RandomSource {
+
+    private static final float UNIT = 0x1.0p-24f;
+
+    private final Object monitor = new Object();
+
+    private final ThreadLocal<SplittableRandom> randoms = ThreadLocal.withInitial(this::split);
+
+    private final SplittableRandom root;
+
+    /**
+     * Creates an instance
+     *
+     * @param seed the seed of the root generator or {@code null} to seed it randomly
+     */
+    SplittableRandomSource(Long seed) {
+        this.root = seed == null ? new SplittableRandom() : new SplittableRandom(seed);
+    }
+
+    @Override
+    public float nextFloat(Member member, Long seed) {
+        return this.randoms.get().nextInt(1 << 24) * UNIT;
+    }
+
+    @Override
+    public Long nextSeed() {
+        return null;
+    }
+
+    private SplittableRandom split() {
+        synchronized (this.monitor) {
+            return this.root.split();
+        }
+    }
+
+}
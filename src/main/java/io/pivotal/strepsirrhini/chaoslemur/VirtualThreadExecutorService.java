@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link ExecutorService} that runs each task on its own virtual thread, capping the number of tasks running at once with a semaphore.  Tasks waiting for a permit park their virtual thread
+ * rather than occupying a pooled platform thread or a slot in a bounded queue.  When the JVM does not support virtual threads, tasks run on a fixed pool of platform threads of the same size.
+ */
+final class VirtualThreadExecutorService extends AbstractExecutorService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final AtomicLong completed = new AtomicLong();
+
+    private final ExecutorService delegate;
+
+    private final Integer parallelism;
+
+    private final Semaphore permits;
+
+    /**
+     * Creates an instance
+     *
+     * @param parallelism      the maximum number of tasks running at once
+     * @param threadNamePrefix the prefix of the names of platform threads, if virtual threads are not supported
+     */
+    VirtualThreadExecutorService(Integer parallelism, String threadNamePrefix) {
+        this(newVirtualThreadPerTaskExecutor(), parallelism, threadNamePrefix);
+    }
+
+    VirtualThreadExecutorService(ExecutorService virtualThreadExecutor, Integer parallelism, String threadNamePrefix) {
+        if (virtualThreadExecutor != null) {
+            this.logger.info("Running up to {} tasks at once on virtual threads", parallelism);
+            this.delegate = virtualThreadExecutor;
+        } else {
+            this.logger.warn("Virtual threads are not supported by this JVM, running up to {} tasks at once on platform threads", parallelism);
+            this.delegate = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory(threadNamePrefix));
+        }
+
+        this.parallelism = parallelism;
+        this.permits = new Semaphore(parallelism, true);
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.delegate.execute(() -> {
+            try {
+                this.permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                if (command instanceof Future) {
+                    ((Future<?>) command).cancel(false);
+                }
+
+                return;
+            }
+
+            try {
+                command.run();
+            } finally {
+                this.permits.release();
+                this.completed.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of tasks that are running
+     *
+     * @return the number of tasks that are running
+     */
+    int getActiveCount() {
+        return this.parallelism - this.permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of tasks that have completed
+     *
+     * @return the number of tasks that have completed
+     */
+    long getCompletedTaskCount() {
+        return this.completed.get();
+    }
+
+    /**
+     * Returns the maximum number of tasks that may run at once
+     *
+     * @return the maximum number of tasks that may run at once
+     */
+    int getMaximumPoolSize() {
+        return this.parallelism;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a permit to run
+     *
+     * @return the number of tasks waiting for a permit to run
+     */
+    int getQueuedCount() {
+        return this.permits.getQueueLength();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.delegate.isTerminated();
+    }
+
+    @Override
+    public void shutdown() {
+        this.delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return this.delegate.shutdownNow();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
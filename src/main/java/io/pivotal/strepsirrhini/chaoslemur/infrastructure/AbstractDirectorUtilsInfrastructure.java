@@ -17,54 +17,264 @@
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
 import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 abstract class AbstractDirectorUtilsInfrastructure implements Infrastructure {
 
-    private static final Pattern DEPLOYMENT_PATTERN = Pattern.compile("(.+)-[^-]+");
-
-    private static final Pattern JOB_PATTERN = Pattern.compile("(.+)-partition-.+");
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private final DirectorUtils directorUtils;
 
-    AbstractDirectorUtilsInfrastructure(DirectorUtils directorUtils) {
+    private final ExecutorService executorService;
+
+    private final Duration snapshotTtl;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Long timeout;
+
+    /**
+     * Creates an instance
+     *
+     * @param directorUtils   the {@link DirectorUtils} to discover members with
+     * @param executorService the {@link ExecutorService} that deployments are discovered on.  The size of its pool bounds the number of concurrent requests made to the Director.
+     * @param snapshotTtl     the number of seconds for which the members of a deployment are reused while the version of the deployment is unchanged
+     * @param timeout         the number of seconds, from when discovery of a deployment starts running, to wait for its members before treating that deployment as failed
+     */
+    AbstractDirectorUtilsInfrastructure(DirectorUtils directorUtils, ExecutorService executorService, Long snapshotTtl, Long timeout) {
         this.directorUtils = directorUtils;
+        this.executorService = executorService;
+        this.snapshotTtl = Duration.ofSeconds(snapshotTtl);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public final void destroy(Member member) throws DestructionException {
+        this.snapshots.values().removeIf(snapshot -> snapshot.contains(member));
+        doDestroy(member);
+    }
+
+    @Override
+    public final Map<Member, DestructionException> destroyAll(Collection<Member> members) {
+        this.snapshots.values().removeIf(snapshot -> members.stream().anyMatch(snapshot::contains));
+        return doDestroyAll(members);
     }
 
     @Override
     public final Set<Member> getMembers() {
         Set<Member> members = new HashSet<>();
+        getMembers(members::add);
+        return members;
+    }
 
-        this.directorUtils.getDeployments().stream().forEach(deployment -> {
-            String normalizedDeployment = normalizeDeployment(deployment);
+    /**
+     * {@inheritDoc}  Members of deployments whose snapshot is current are passed first, followed by the members of the remaining deployments in the order that their discovery completes.  The
+     * consumer is called on the calling thread, so a slow consumer holds back the collection of further results while the discovery executor continues with the deployments it has already been given.
+     *
+     * @param consumer the consumer of the members
+     */
+    @Override
+    public final void getMembers(Consumer<Member> consumer) {
+        Map<String, String> deployments = this.directorUtils.getDeployments();
+        this.snapshots.keySet().retainAll(deployments.keySet());
+
+        CompletionService<Snapshot> completionService = new ExecutorCompletionService<>(this.executorService);
+        Map<Future<Snapshot>, Discovery> discoveries = new LinkedHashMap<>();
+        long timeout = TimeUnit.SECONDS.toNanos(this.timeout);
+        AtomicInteger count = new AtomicInteger();
+        Consumer<Member> counting = member -> {
+            count.incrementAndGet();
+            consumer.accept(member);
+        };
 
-            this.directorUtils.getVirtualMachines(deployment).stream()
-                .forEach(virtualMachine -> {
-                    String id = virtualMachine.get("cid");
-                    String job = normalizeJob(virtualMachine.get("job"));
-                    String name = String.format("%s/%s", virtualMachine.get("job"), virtualMachine.get("index"));
+        deployments.forEach((deployment, version) -> {
+            Snapshot snapshot = this.snapshots.get(deployment);
 
-                    members.add(new Member(id, normalizedDeployment, job, name));
-                });
+            if (snapshot != null && snapshot.isCurrent(version, this.snapshotTtl)) {
+                snapshot.members.forEach(counting);
+            } else {
+                Discovery discovery = new Discovery(deployment);
+                discoveries.put(completionService.submit(() -> {
+                    discovery.start();
+                    return getSnapshot(deployment, version);
+                }), discovery);
+            }
         });
 
-        return members;
+        this.logger.debug("Reusing members of {} deployments, discovering members of {} deployments", deployments.size() - discoveries.size(), discoveries.size());
+
+        Set<String> failedDeployments = new TreeSet<>();
+
+        try {
+            while (!discoveries.isEmpty()) {
+                long now = System.nanoTime();
+                long wait = discoveries.values().stream().mapToLong(discovery -> discovery.getRemaining(now, timeout)).min().orElse(timeout);
+                Future<Snapshot> future = completionService.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+
+                if (future == null) {
+                    expire(discoveries, failedDeployments, timeout);
+                    continue;
+                }
+
+                Discovery discovery = discoveries.remove(future);
+
+                if (discovery == null) {
+                    continue;
+                }
+
+                String deployment = discovery.deployment;
+
+                try {
+                    Snapshot snapshot = future.get();
+
+                    if (this.snapshotTtl.compareTo(Duration.ZERO) > 0) {
+                        this.snapshots.put(deployment, snapshot);
+                    }
+
+                    snapshot.members.forEach(counting);
+                } catch (CancellationException e) {
+                    failedDeployments.add(deployment);
+                } catch (ExecutionException e) {
+                    this.logger.warn("Unable to discover members of {}", deployment, e.getCause());
+                    failedDeployments.add(deployment);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            discoveries.forEach((future, discovery) -> {
+                future.cancel(true);
+                failedDeployments.add(discovery.deployment);
+            });
+        }
+
+        if (!failedDeployments.isEmpty()) {
+            this.logger.warn("Discovered {} members, excluding failed deployments: {}", count.get(), failedDeployments);
+        }
     }
 
-    private static String normalize(String value, Pattern pattern) {
-        Matcher matcher = pattern.matcher(value);
-        return matcher.find() ? matcher.group(1) : value;
+    /**
+     * Destroys a {@link Member}
+     *
+     * @param member The member to destroy
+     * @throws DestructionException
+     */
+    protected abstract void doDestroy(Member member) throws DestructionException;
+
+    /**
+     * Destroys a collection of {@link Member}s.  By default, each member is destroyed in turn with {@link #doDestroy(Member)}.
+     *
+     * @param members The members to destroy
+     * @return the members that could not be destroyed, mapped to the cause of the failure
+     */
+    protected Map<Member, DestructionException> doDestroyAll(Collection<Member> members) {
+        Map<Member, DestructionException> failures = new HashMap<>();
+
+        for (Member member : members) {
+            try {
+                doDestroy(member);
+            } catch (DestructionException e) {
+                failures.put(member, e);
+            } catch (RuntimeException e) {
+                failures.put(member, new DestructionException(String.format("Unable to destroy %s", member), e));
+            }
+        }
+
+        return failures;
     }
 
-    private String normalizeDeployment(String value) {
-        return normalize(value, DEPLOYMENT_PATTERN);
+    private void expire(Map<Future<Snapshot>, Discovery> discoveries, Set<String> failedDeployments, long timeout) {
+        long now = System.nanoTime();
+
+        for (Iterator<Map.Entry<Future<Snapshot>, Discovery>> i = discoveries.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<Future<Snapshot>, Discovery> entry = i.next();
+            Discovery discovery = entry.getValue();
+
+            if (discovery.getRemaining(now, timeout) > 0) {
+                continue;
+            }
+
+            this.logger.warn("Timed out discovering members of {} after {}s", discovery.deployment, this.timeout);
+            entry.getKey().cancel(true);
+            failedDeployments.add(discovery.deployment);
+            i.remove();
+        }
     }
 
-    private String normalizeJob(String value) {
-        return normalize(value, JOB_PATTERN);
+    private Snapshot getSnapshot(String deployment, String version) {
+        Instant created = Instant.now();
+        return new Snapshot(created, this.directorUtils.getMembers(deployment), version);
     }
+
+    /**
+     * The discovery of a deployment.  Its timeout is measured from when it starts running, so time spent queued behind other discoveries does not count against it.  A discovery that has not
+     * started cannot expire sooner than a full timeout from now.
+     */
+    private static final class Discovery {
+
+        private final String deployment;
+
+        private volatile Long started;
+
+        private Discovery(String deployment) {
+            this.deployment = deployment;
+        }
+
+        private long getRemaining(long now, long timeout) {
+            Long started = this.started;
+            return started == null ? timeout : started + timeout - now;
+        }
+
+        private void start() {
+            this.started = System.nanoTime();
+        }
+
+    }
+
+    private static final class Snapshot {
+
+        private final Instant created;
+
+        private final Set<Member> members;
+
+        private final String version;
+
+        private Snapshot(Instant created, Set<Member> members, String version) {
+            this.created = created;
+            this.members = members;
+            this.version = version;
+        }
+
+        private boolean contains(Member member) {
+            return this.members.stream().anyMatch(candidate -> candidate.getId().equals(member.getId()));
+        }
+
+        private boolean isCurrent(String version, Duration ttl) {
+            return this.version.equals(version) && Duration.between(this.created, Instant.now()).compareTo(ttl) < 0;
+        }
+
+    }
+
 }
@@ -16,28 +16,88 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.ec2.AmazonEC2;
+import com.amazonaws.services.ec2.model.InstanceStateChange;
 import com.amazonaws.services.ec2.model.TerminateInstancesRequest;
+import com.amazonaws.services.ec2.model.TerminateInstancesResult;
 import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 final class AwsInfrastructure extends AbstractDirectorUtilsInfrastructure {
 
+    /**
+     * The maximum number of instance IDs accepted by a single {@code TerminateInstances} request
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private final AmazonEC2 amazonEC2;
 
-    AwsInfrastructure(DirectorUtils directorUtils, AmazonEC2 amazonEC2) {
-        super(directorUtils);
+    AwsInfrastructure(DirectorUtils directorUtils, ExecutorService executorService, Long snapshotTtl, Long timeout, AmazonEC2 amazonEC2) {
+        super(directorUtils, executorService, snapshotTtl, timeout);
         this.amazonEC2 = amazonEC2;
     }
 
     @Override
-    public void destroy(Member member) throws DestructionException {
+    protected void doDestroy(Member member) throws DestructionException {
         List<String> terminate = new ArrayList<>();
         terminate.add(member.getId());
         TerminateInstancesRequest tir = new TerminateInstancesRequest(terminate);
         this.amazonEC2.terminateInstances(tir);
     }
 
+    @Override
+    protected Map<Member, DestructionException> doDestroyAll(Collection<Member> members) {
+        Map<Member, DestructionException> failures = new HashMap<>();
+        List<Member> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (Member member : members) {
+            batch.add(member);
+
+            if (batch.size() == BATCH_SIZE) {
+                failures.putAll(terminate(batch));
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            failures.putAll(terminate(batch));
+        }
+
+        return failures;
+    }
+
+    private Map<Member, DestructionException> terminate(List<Member> batch) {
+        Map<String, Member> instances = new LinkedHashMap<>();
+        batch.forEach(member -> instances.put(member.getId(), member));
+
+        TerminateInstancesResult result;
+        try {
+            result = this.amazonEC2.terminateInstances(new TerminateInstancesRequest(new ArrayList<>(instances.keySet())));
+        } catch (AmazonClientException e) {
+            this.logger.warn("Unable to terminate {} instances in a single request, terminating individually", instances.size(), e);
+            return super.doDestroyAll(batch);
+        }
+
+        result.getTerminatingInstances().stream()
+            .map(InstanceStateChange::getInstanceId)
+            .forEach(instances::remove);
+
+        Map<Member, DestructionException> failures = new HashMap<>();
+        instances.values().forEach(member -> failures.put(member, new DestructionException(String.format("Instance %s was not terminated", member.getId()))));
+
+        return failures;
+    }
+
 }
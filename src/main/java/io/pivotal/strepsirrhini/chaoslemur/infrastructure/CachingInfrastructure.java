@@ -0,0 +1,191 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An {@link Infrastructure} that serves the members of another {@link Infrastructure} from a snapshot.  A snapshot is served until it is older than the time-to-live, and is refreshed in the
+ * background once it is older than half of the time-to-live, so that callers rarely wait for the members to be discovered.  Members are discovered without holding the lock that destroys evict
+ * members under, and a snapshot whose discovery started before the latest eviction is never published, so that destroyed members are not put back into the cache.
+ */
+final class CachingInfrastructure implements Infrastructure {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Clock clock;
+
+    private final CounterService counterService;
+
+    private final Infrastructure delegate;
+
+    private final ExecutorService executorService;
+
+    private final GaugeService gaugeService;
+
+    private final Object loadMonitor = new Object();
+
+    private final Object monitor = new Object();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final Duration ttl;
+
+    private long generation;
+
+    private volatile Snapshot snapshot;
+
+    CachingInfrastructure(Clock clock, CounterService counterService, Infrastructure delegate, ExecutorService executorService, GaugeService gaugeService, Long ttl) {
+        this.clock = clock;
+        this.counterService = counterService;
+        this.delegate = delegate;
+        this.executorService = executorService;
+        this.gaugeService = gaugeService;
+        this.ttl = Duration.ofSeconds(ttl);
+    }
+
+    @Override
+    public void destroy(Member member) throws DestructionException {
+        evict(Collections.singleton(member));
+        this.delegate.destroy(member);
+    }
+
+    @Override
+    public Map<Member, DestructionException> destroyAll(Collection<Member> members) {
+        evict(members);
+        return this.delegate.destroyAll(members);
+    }
+
+    @Override
+    public Set<Member> getMembers() {
+        Snapshot snapshot = this.snapshot;
+
+        if (snapshot == null || isExpired(snapshot)) {
+            synchronized (this.loadMonitor) {
+                snapshot = this.snapshot;
+
+                if (snapshot == null || isExpired(snapshot)) {
+                    this.counterService.increment("inventory.cache.miss");
+                    snapshot = load();
+                    return snapshot.members;
+                }
+            }
+        }
+
+        this.counterService.increment("inventory.cache.hit");
+        this.gaugeService.submit("inventory.cache.age", getAge(snapshot).toMillis());
+
+        if (getAge(snapshot).compareTo(this.ttl.dividedBy(2)) >= 0) {
+            refresh();
+        }
+
+        return snapshot.members;
+    }
+
+    private void evict(Collection<Member> members) {
+        synchronized (this.monitor) {
+            Snapshot snapshot = this.snapshot;
+
+            this.generation++;
+
+            if (snapshot != null) {
+                Set<Member> remaining = new HashSet<>(snapshot.members);
+                remaining.removeAll(members);
+                this.snapshot = new Snapshot(snapshot.created, Collections.unmodifiableSet(remaining));
+            }
+        }
+    }
+
+    private Duration getAge(Snapshot snapshot) {
+        return Duration.between(snapshot.created, this.clock.instant());
+    }
+
+    private boolean isExpired(Snapshot snapshot) {
+        return getAge(snapshot).compareTo(this.ttl) >= 0;
+    }
+
+    private Snapshot load() {
+        long generation;
+
+        synchronized (this.monitor) {
+            generation = this.generation;
+        }
+
+        Snapshot snapshot = new Snapshot(this.clock.instant(), Collections.unmodifiableSet(new HashSet<>(this.delegate.getMembers())));
+
+        synchronized (this.monitor) {
+            if (this.generation == generation) {
+                this.snapshot = snapshot;
+            } else {
+                this.logger.debug("Discarding members discovered before an eviction");
+            }
+        }
+
+        return snapshot;
+    }
+
+    private void refresh() {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            this.executorService.execute(() -> {
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    this.logger.warn("Unable to refresh members", e);
+                } finally {
+                    this.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.logger.debug("Deferring refresh of members", e);
+            this.refreshing.set(false);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Instant created;
+
+        private final Set<Member> members;
+
+        private Snapshot(Instant created, Set<Member> members) {
+            this.created = created;
+            this.members = members;
+        }
+
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Reports the number of leased, available, and pending connections of a connection pool, along with its maximum size
+ */
+final class ConnectionPoolMetrics implements PublicMetrics {
+
+    private final ConnPoolControl<?> connectionPool;
+
+    private final String prefix;
+
+    ConnectionPoolMetrics(ConnPoolControl<?> connectionPool, String prefix) {
+        this.connectionPool = connectionPool;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        PoolStats stats = this.connectionPool.getTotalStats();
+
+        return Arrays.<Metric<?>>asList(
+            new Metric<>(String.format("%s.available", this.prefix), stats.getAvailable()),
+            new Metric<>(String.format("%s.leased", this.prefix), stats.getLeased()),
+            new Metric<>(String.format("%s.max", this.prefix), stats.getMax()),
+            new Metric<>(String.format("%s.pending", this.prefix), stats.getPending()));
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Waits for Director tasks to finish.  Rather than every waiting thread polling its own task, the tasks being waited for are polled together: at most once per interval, whichever waiting thread
+ * finds the interval elapsed lists the Director's unfinished tasks in a single request.  Only tasks that are no longer listed are requested individually, to read their final state.
+ */
+final class DirectorTasks {
+
+    private static final Set<String> FINISHED_STATES = new HashSet<>(Arrays.asList("cancelled", "done", "error", "timeout"));
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Lock lock = new ReentrantLock();
+
+    private final Long pollInterval;
+
+    private final RestTemplate restTemplate;
+
+    private final URI root;
+
+    private final ConcurrentMap<Long, CompletableFuture<String>> tasks = new ConcurrentHashMap<>();
+
+    private long nextPoll = System.nanoTime();
+
+    /**
+     * Creates an instance
+     *
+     * @param pollInterval the number of milliseconds between polls of the Director's tasks
+     * @param restTemplate the {@link RestTemplate} to poll the Director with
+     * @param root         the root {@link URI} of the Director
+     */
+    DirectorTasks(Long pollInterval, RestTemplate restTemplate, URI root) {
+        this.pollInterval = pollInterval;
+        this.restTemplate = restTemplate;
+        this.root = root;
+    }
+
+    /**
+     * Waits for a task to finish
+     *
+     * @param id the id of the task
+     * @return the final state of the task
+     * @throws InterruptedException if interrupted while waiting
+     */
+    String await(Long id) throws InterruptedException {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        this.tasks.put(id, future);
+
+        try {
+            while (true) {
+                poll();
+
+                try {
+                    return future.get(this.pollInterval, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                } catch (TimeoutException e) {
+                    this.logger.trace("Task {} still running", id);
+                }
+            }
+        } finally {
+            this.tasks.remove(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String getState(Long id) {
+        URI taskUri = UriComponentsBuilder.fromUri(this.root)
+            .pathSegment("tasks", id.toString())
+            .build().toUri();
+
+        Map<String, Object> task = this.restTemplate.getForObject(taskUri, Map.class);
+        return (String) task.get("state");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> getUnfinished() {
+        URI tasksUri = UriComponentsBuilder.fromUri(this.root)
+            .path("tasks")
+            .queryParam("state", "queued,processing")
+            .queryParam("verbose", 2)
+            .build().toUri();
+
+        List<Map<String, Object>> tasks = this.restTemplate.getForObject(tasksUri, List.class);
+
+        return tasks.stream()
+            .map(task -> ((Number) task.get("id")).longValue())
+            .collect(Collectors.toSet());
+    }
+
+    private void poll() {
+        if (!this.lock.tryLock()) {
+            return;
+        }
+
+        try {
+            long now = System.nanoTime();
+            if (now - this.nextPoll < 0) {
+                return;
+            }
+
+            this.nextPoll = now + TimeUnit.MILLISECONDS.toNanos(this.pollInterval);
+
+            Set<Long> unfinished = getUnfinished();
+            this.logger.debug("Polled {} tasks, {} unfinished on the Director", this.tasks.size(), unfinished.size());
+
+            for (Map.Entry<Long, CompletableFuture<String>> entry : this.tasks.entrySet()) {
+                if (unfinished.contains(entry.getKey())) {
+                    continue;
+                }
+
+                String state = getState(entry.getKey());
+                if (FINISHED_STATES.contains(state)) {
+                    entry.getValue().complete(state);
+                }
+            }
+        } catch (RuntimeException e) {
+            this.logger.warn("Unable to poll Director tasks", e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
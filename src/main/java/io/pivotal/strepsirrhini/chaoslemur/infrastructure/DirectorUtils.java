@@ -16,24 +16,26 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
+import io.pivotal.strepsirrhini.chaoslemur.Member;
+
 import java.util.Map;
 import java.util.Set;
 
 interface DirectorUtils {
 
     /**
-     * Returns a list of deployments on the Director
+     * Returns the deployments on the Director, mapped to their version.  The version of a deployment changes whenever its releases, stemcells, or cloud config change.
      *
-     * @return a list of deployments on the Director
+     * @return the deployments on the Director, mapped to their version
      */
-    Set<String> getDeployments();
+    Map<String, String> getDeployments();
 
     /**
-     * Returns a list of VMs in a deployment
+     * Returns the members of a deployment
      *
      * @param deployment the deployment
-     * @return a list of VMs in a deployment
+     * @return the members of a deployment
      */
-    Set<Map<String, String>> getVirtualMachines(String deployment);
+    Set<Member> getMembers(String deployment);
 
 }
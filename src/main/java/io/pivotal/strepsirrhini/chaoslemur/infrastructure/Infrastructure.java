@@ -19,7 +19,11 @@ package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
 import io.pivotal.strepsirrhini.chaoslemur.Member;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * An abstraction for interfacing with multiple infrastructures.
@@ -34,6 +38,29 @@ public interface Infrastructure {
      */
     void destroy(Member member) throws DestructionException;
 
+    /**
+     * Destroys a collection of {@link Member}s.  Infrastructures that can destroy many members in a single request should override this method.  By default, each member is destroyed in turn with
+     * {@link #destroy(Member)}.
+     *
+     * @param members The members to destroy
+     * @return the members that could not be destroyed, mapped to the cause of the failure.  Members that are not present were destroyed.
+     */
+    default Map<Member, DestructionException> destroyAll(Collection<Member> members) {
+        Map<Member, DestructionException> failures = new HashMap<>();
+
+        for (Member member : members) {
+            try {
+                destroy(member);
+            } catch (DestructionException e) {
+                failures.put(member, e);
+            } catch (RuntimeException e) {
+                failures.put(member, new DestructionException(String.format("Unable to destroy %s", member), e));
+            }
+        }
+
+        return failures;
+    }
+
     /**
      * Returns a {@link Set} of all {@link Member}s
      *
@@ -41,4 +68,14 @@ public interface Infrastructure {
      */
     Set<Member> getMembers();
 
+    /**
+     * Passes each {@link Member} to a consumer.  Infrastructures that discover members incrementally should override this method so that members are passed on as soon as they are discovered.  By
+     * default, the members returned by {@link #getMembers()} are passed in turn.
+     *
+     * @param consumer the consumer of the members
+     */
+    default void getMembers(Consumer<Member> consumer) {
+        getMembers().forEach(consumer);
+    }
+
 }
@@ -21,20 +21,46 @@ import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.ec2.AmazonEC2;
 import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.vmware.vim25.mo.ServiceInstance;
+import org.apache.http.client.HttpClient;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLContexts;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.jclouds.Constants;
 import org.jclouds.ContextBuilder;
 import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
 import org.jclouds.openstack.nova.v2_0.NovaApi;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.net.ssl.SSLContext;
 import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
 import java.util.Collections;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 class InfrastructureConfiguration {
@@ -57,17 +83,51 @@ class InfrastructureConfiguration {
 
     @Bean
     @ConditionalOnBean(AmazonEC2.class)
-    AwsInfrastructure awsInfrastructure(DirectorUtils directorUtils, AmazonEC2 amazonEC2) {
-        return new AwsInfrastructure(directorUtils, amazonEC2);
+    AwsInfrastructure awsInfrastructure(DirectorUtils directorUtils,
+                                        @Qualifier("discoveryExecutor") ExecutorService executorService,
+                                        @Value("${discovery.format:basic}") String format,
+                                        @Value("${discovery.snapshotTtl:0}") Long snapshotTtl,
+                                        @Value("${discovery.timeout:60}") Long timeout,
+                                        AmazonEC2 amazonEC2) {
+        return new AwsInfrastructure(directorUtils, executorService, getSnapshotTtl(format, snapshotTtl), timeout, amazonEC2);
     }
 
     @Bean
-    @ConditionalOnProperty("vsphere.host")
-    StandardInventoryNavigatorFactory inventoryNavigatorFactory(@Value("${vsphere.host}") String host,
-                                                                @Value("${vsphere.username}") String username,
-                                                                @Value("${vsphere.password}") String password) throws MalformedURLException {
+    @ConditionalOnProperty("inventory.ttl")
+    @Primary
+    CachingInfrastructure cachingInfrastructure(CounterService counterService,
+                                                Infrastructure infrastructure,
+                                                @Qualifier("orchestrationExecutor") ExecutorService executorService,
+                                                GaugeService gaugeService,
+                                                @Value("${inventory.ttl}") Long ttl) {
+        return new CachingInfrastructure(Clock.systemUTC(), counterService, infrastructure, executorService, gaugeService, ttl);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty("director.host")
+    PoolingHttpClientConnectionManager directorConnectionManager(@Value("${director.connection.maxPerRoute:10}") Integer maxPerRoute,
+                                                                 @Value("${director.connection.maxTotal:20}") Integer maxTotal) throws GeneralSecurityException {
+
+        SSLContext sslContext = SSLContexts.custom()
+            .loadTrustMaterial(null, new TrustSelfSignedStrategy())
+            .useTLS()
+            .build();
+
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("https", new SSLConnectionSocketFactory(sslContext, new AllowAllHostnameVerifier()))
+            .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setMaxTotal(maxTotal);
 
-        return new StandardInventoryNavigatorFactory(host, username, password);
+        return connectionManager;
+    }
+
+    @Bean
+    @ConditionalOnBean(name = "directorConnectionManager")
+    ConnectionPoolMetrics directorConnectionPoolMetrics(PoolingHttpClientConnectionManager directorConnectionManager) {
+        return new ConnectionPoolMetrics(directorConnectionManager, "director.connections");
     }
 
     @Bean
@@ -94,8 +154,27 @@ class InfrastructureConfiguration {
 
     @Bean
     @ConditionalOnBean(NovaApi.class)
-    OpenStackInfrastructure openStackInfrastructure(DirectorUtils directorUtils, NovaApi novaApi) {
-        return new OpenStackInfrastructure(directorUtils, novaApi);
+    OpenStackInfrastructure openStackInfrastructure(DirectorUtils directorUtils,
+                                                    @Qualifier("discoveryExecutor") ExecutorService executorService,
+                                                    @Value("${discovery.format:basic}") String format,
+                                                    @Value("${discovery.snapshotTtl:0}") Long snapshotTtl,
+                                                    @Value("${discovery.timeout:60}") Long timeout,
+                                                    @Qualifier("destructionExecutor") ExecutorService destructionExecutor,
+                                                    NovaApi novaApi) {
+        return new OpenStackInfrastructure(directorUtils, executorService, getSnapshotTtl(format, snapshotTtl), timeout, destructionExecutor, novaApi);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty("vsphere.host")
+    ServiceInstancePool serviceInstancePool(CounterService counterService,
+                                            @Value("${vsphere.session.heartbeatInterval:60}") Long heartbeatInterval,
+                                            @Value("${vsphere.host}") String host,
+                                            @Value("${vsphere.username}") String username,
+                                            @Value("${vsphere.password}") String password,
+                                            @Value("${vsphere.session.poolSize:2}") Integer poolSize) throws MalformedURLException {
+
+        URL url = new URL(String.format("https://%s/sdk", host));
+        return new ServiceInstancePool(Clock.systemUTC(), counterService, heartbeatInterval, () -> new ServiceInstance(url, username, password, true), poolSize);
     }
 
     @Bean
@@ -104,10 +183,53 @@ class InfrastructureConfiguration {
         return new SimpleInfrastructure();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty("director.uaa.clientId")
+    UaaClientHttpRequestInterceptor uaaClientHttpRequestInterceptor(@Value("${director.uaa.clientId}") String clientId,
+                                                                    @Value("${director.uaa.clientSecret}") String clientSecret,
+                                                                    HttpClientConnectionManager connectionManager,
+                                                                    @Value("${director.host}") String host,
+                                                                    @Value("${director.uaa.port:8443}") Integer port) {
+
+        HttpClient httpClient = HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setConnectionManagerShared(true)
+            .build();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("uaa-");
+        threadFactory.setDaemon(true);
+
+        return new UaaClientHttpRequestInterceptor(clientId, clientSecret, new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)),
+            Executors.newSingleThreadScheduledExecutor(threadFactory), UriComponentsBuilder.newInstance().scheme("https").host(host).port(port).path("oauth/token").build().toUri());
+    }
+
+    @Bean
+    @ConditionalOnProperty("vsphere.host")
+    VSphereInfrastructure vSphereInfrastructure(DirectorUtils directorUtils,
+                                                @Qualifier("discoveryExecutor") ExecutorService executorService,
+                                                @Value("${discovery.format:basic}") String format,
+                                                @Value("${discovery.snapshotTtl:0}") Long snapshotTtl,
+                                                @Value("${discovery.timeout:60}") Long timeout,
+                                                @Value("${vsphere.task.pollInterval:1000}") Long taskPollInterval,
+                                                @Value("${vsphere.task.timeout:300}") Long taskTimeout,
+                                                VirtualMachineIndex virtualMachineIndex) {
+        return new VSphereInfrastructure(directorUtils, executorService, getSnapshotTtl(format, snapshotTtl), timeout, taskPollInterval, taskTimeout, virtualMachineIndex);
+    }
+
     @Bean
-    @ConditionalOnBean(InventoryNavigatorFactory.class)
-    VSphereInfrastructure vSphereInfrastructure(DirectorUtils directorUtils, InventoryNavigatorFactory inventoryNavigatorFactory) {
-        return new VSphereInfrastructure(directorUtils, inventoryNavigatorFactory);
+    @ConditionalOnProperty("vsphere.host")
+    StandardVirtualMachineIndex virtualMachineIndex(@Value("${vsphere.index.rebuildInterval:30}") Long rebuildInterval,
+                                                    ServiceInstancePool serviceInstancePool,
+                                                    @Value("${vsphere.index.ttl:300}") Long ttl) {
+        return new StandardVirtualMachineIndex(Clock.systemUTC(), rebuildInterval, serviceInstancePool, ttl);
+    }
+
+    /**
+     * Returns the snapshot time-to-live for a discovery format.  Snapshots are never reused with the {@code full} format, because the health of each member is read from the listing and must not
+     * be stale when members are selected.
+     */
+    private static Long getSnapshotTtl(String format, Long snapshotTtl) {
+        return "full".equals(format) ? 0L : snapshotTtl;
     }
 
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the {@link Member}s of a deployment directly from the Director's VM listing, without first binding each VM to a {@link java.util.Map}.  Only the {@code cid}, {@code job}, {@code index},
+ * {@code az}, {@code ips}, {@code job_state}, and {@code resurrection_paused} of each VM are read; all other values are skipped.  Reads either the JSON array returned by the VM listing, or the newline-delimited objects that are the result of a
+ * {@code format=full} VM listing task, whose {@code vm_cid} and {@code job_name} are read in place of {@code cid} and {@code job}.
+ */
+final class MemberResponseExtractor implements ResponseExtractor<Set<Member>> {
+
+    private static final Pattern DEPLOYMENT_PATTERN = Pattern.compile("(.+)-[^-]+");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Pattern JOB_PATTERN = Pattern.compile("(.+)-partition-.+");
+
+    private final Boolean delimited;
+
+    private final String deployment;
+
+    MemberResponseExtractor(String deployment) {
+        this(deployment, false);
+    }
+
+    /**
+     * Creates an instance
+     *
+     * @param deployment the deployment whose VMs are listed
+     * @param delimited  whether the VMs are newline-delimited objects rather than a JSON array
+     */
+    MemberResponseExtractor(String deployment, Boolean delimited) {
+        this.delimited = delimited;
+        this.deployment = normalize(deployment, DEPLOYMENT_PATTERN);
+    }
+
+    @Override
+    public Set<Member> extractData(ClientHttpResponse response) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(response.getBody())) {
+            if (!this.delimited && parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of VMs");
+            }
+
+            Set<Member> members = new HashSet<>();
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                members.add(readMember(parser));
+            }
+
+            return members;
+        }
+    }
+
+    private static String normalize(String value, Pattern pattern) {
+        Matcher matcher = pattern.matcher(value);
+        return matcher.find() ? matcher.group(1) : value;
+    }
+
+    private static List<String> readIps(JsonParser parser) throws IOException {
+        List<String> ips = new ArrayList<>();
+
+        if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                ips.add(parser.getValueAsString());
+            }
+        } else {
+            parser.skipChildren();
+        }
+
+        return ips;
+    }
+
+    private Member readMember(JsonParser parser) throws IOException {
+        String az = null;
+        String cid = null;
+        String index = null;
+        List<String> ips = Collections.emptyList();
+        String job = null;
+        boolean resurrectionPaused = false;
+        String state = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "az":
+                    az = parser.getValueAsString();
+                    break;
+                case "cid":
+                case "vm_cid":
+                    cid = parser.getValueAsString();
+                    break;
+                case "index":
+                    index = parser.getValueAsString();
+                    break;
+                case "ips":
+                    ips = readIps(parser);
+                    break;
+                case "job":
+                case "job_name":
+                    job = parser.getValueAsString();
+                    break;
+                case "job_state":
+                case "process_state":
+                    state = parser.getValueAsString();
+                    break;
+                case "resurrection_paused":
+                    resurrectionPaused = parser.getValueAsBoolean();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return new Member(cid, this.deployment, normalize(job, JOB_PATTERN), String.format("%s/%s", job, index), az, ips, state, resurrectionPaused);
+    }
+
+}
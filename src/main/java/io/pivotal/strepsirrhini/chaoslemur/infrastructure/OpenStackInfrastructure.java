@@ -18,24 +18,171 @@ package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
 import io.pivotal.strepsirrhini.chaoslemur.Member;
 import org.jclouds.openstack.nova.v2_0.NovaApi;
+import org.jclouds.openstack.v2_0.domain.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 final class OpenStackInfrastructure extends AbstractDirectorUtilsInfrastructure {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ExecutorService destructionExecutor;
+
+    private final Object monitor = new Object();
+
     private final NovaApi novaApi;
 
-    OpenStackInfrastructure(DirectorUtils directorUtils, NovaApi novaApi) {
-        super(directorUtils);
+    private volatile Map<String, String> regions = Collections.emptyMap();
+
+    /**
+     * Creates an instance
+     *
+     * @param directorUtils       the {@link DirectorUtils} to discover members with
+     * @param executorService     the {@link ExecutorService} that deployments are discovered on
+     * @param snapshotTtl         the number of seconds for which the members of a deployment are reused while the version of the deployment is unchanged
+     * @param timeout             the number of seconds to wait for the members of a deployment before treating that deployment as failed
+     * @param destructionExecutor the {@link ExecutorService} that servers are stopped on
+     * @param novaApi             the {@link NovaApi} to stop servers with
+     */
+    OpenStackInfrastructure(DirectorUtils directorUtils, ExecutorService executorService, Long snapshotTtl, Long timeout, ExecutorService destructionExecutor, NovaApi novaApi) {
+        super(directorUtils, executorService, snapshotTtl, timeout);
+        this.destructionExecutor = destructionExecutor;
         this.novaApi = novaApi;
     }
 
     @Override
-    public void destroy(Member member) throws DestructionException {
+    protected void doDestroy(Member member) throws DestructionException {
+        String region = getRegions(Collections.singletonList(member)).get(member);
+
+        if (region == null) {
+            throw new DestructionException(String.format("Unable to find the region of %s", member));
+        }
+
         try {
-            this.novaApi.getConfiguredRegions()
-                .forEach(region -> this.novaApi.getServerApi(region).stop(member.getId()));
+            this.novaApi.getServerApi(region).stop(member.getId());
         } catch (Exception e) {
             throw new DestructionException(String.format("Unable to destroy %s", member), e);
         }
     }
 
+    /**
+     * Stops every member concurrently, issuing a single stop request per member to the region that the member's server is in.  The regions of all of the members are resolved up front so that the
+     * servers are listed at most once, however many of the members are unknown.
+     */
+    @Override
+    protected Map<Member, DestructionException> doDestroyAll(Collection<Member> members) {
+        Map<Member, DestructionException> failures = new HashMap<>();
+        Map<Member, Future<?>> futures = new LinkedHashMap<>();
+        Map<Member, String> regions = getRegions(members);
+
+        for (Member member : members) {
+            String region = regions.get(member);
+
+            if (region == null) {
+                failures.put(member, new DestructionException(String.format("Unable to find the region of %s", member)));
+            } else {
+                futures.put(member, submitStop(member, region, members.size() > 1));
+            }
+        }
+
+        for (Map.Entry<Member, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (ExecutionException e) {
+                failures.put(entry.getKey(), new DestructionException(String.format("Unable to destroy %s", entry.getKey()), e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                futures.forEach((member, future) -> {
+                    if (future.cancel(true)) {
+                        failures.put(member, new DestructionException(String.format("Interrupted while destroying %s", member), e));
+                    }
+                });
+                break;
+            }
+        }
+
+        return failures;
+    }
+
+    private static boolean containsAll(Map<String, String> regions, Collection<Member> members) {
+        return members.stream().allMatch(member -> regions.containsKey(member.getId()));
+    }
+
+    private Map<Member, String> getRegions(Collection<Member> members) {
+        Map<String, String> regions = this.regions;
+
+        if (!containsAll(regions, members)) {
+            synchronized (this.monitor) {
+                regions = this.regions;
+
+                if (!containsAll(regions, members)) {
+                    regions = indexRegions();
+                }
+            }
+        }
+
+        Map<Member, String> memberRegions = new HashMap<>();
+
+        for (Member member : members) {
+            String region = regions.get(member.getId());
+
+            if (region != null) {
+                memberRegions.put(member, region);
+            }
+        }
+
+        return memberRegions;
+    }
+
+    private Map<String, String> indexRegions() {
+        Map<String, String> regions = new HashMap<>();
+
+        for (String region : this.novaApi.getConfiguredRegions()) {
+            try {
+                for (Resource server : this.novaApi.getServerApi(region).list().concat()) {
+                    regions.put(server.getId(), region);
+                }
+            } catch (RuntimeException e) {
+                this.logger.warn("Unable to list servers in {}", region, e);
+            }
+        }
+
+        this.logger.debug("Indexed {} servers in {} regions", regions.size(), this.novaApi.getConfiguredRegions().size());
+
+        this.regions = regions;
+        return regions;
+    }
+
+    /**
+     * Stops a member's server on the destruction executor.  A lone member is stopped on the calling thread instead, because a paced or streaming run already destroys each member on the destruction
+     * executor and must not wait on its own pool.  A member is also stopped on the calling thread if the executor rejects it.
+     */
+    private Future<?> submitStop(Member member, String region, boolean concurrent) {
+        FutureTask<Void> stop = new FutureTask<>(() -> this.novaApi.getServerApi(region).stop(member.getId()), null);
+
+        if (concurrent) {
+            try {
+                this.destructionExecutor.execute(stop);
+                return stop;
+            } catch (RejectedExecutionException e) {
+                this.logger.debug("Stopping {} on the calling thread, destruction executor is full", member);
+            }
+        }
+
+        stop.run();
+        return stop;
+    }
+
 }
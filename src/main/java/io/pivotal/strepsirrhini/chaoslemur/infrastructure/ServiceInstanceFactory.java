@@ -16,16 +16,16 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
-import com.vmware.vim25.mo.InventoryNavigator;
+import com.vmware.vim25.mo.ServiceInstance;
 
 import java.io.IOException;
 
-interface InventoryNavigatorFactory {
+interface ServiceInstanceFactory {
 
     /**
-     * Creates a new {@link InventoryNavigator} on each invocation
+     * Creates a new {@link ServiceInstance}, logging in to vSphere, on each invocation
      *
-     * @return a new {@link InventoryNavigator}
+     * @return a new {@link ServiceInstance}
      */
-    InventoryNavigator create() throws IOException;
+    ServiceInstance create() throws IOException;
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.vmware.vim25.mo.ServiceInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.CounterService;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed-size pool of authenticated vSphere sessions that are handed out in turn.  A session that has not been used for longer than the heartbeat interval is validated with a cheap request before
+ * it is handed out, and is replaced with a new login if it has expired.  Sessions are logged out when the pool is shut down.
+ */
+final class ServiceInstancePool {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Clock clock;
+
+    private final CounterService counterService;
+
+    private final Duration heartbeatInterval;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ServiceInstanceFactory serviceInstanceFactory;
+
+    private final Session[] sessions;
+
+    /**
+     * Creates an instance
+     *
+     * @param clock                  the {@link Clock} used to determine when a session must be validated
+     * @param counterService         the {@link CounterService} to record logins and session reuse with
+     * @param heartbeatInterval      the number of seconds a session may be idle before it is validated
+     * @param serviceInstanceFactory the {@link ServiceInstanceFactory} used to log in
+     * @param size                   the number of sessions in the pool
+     */
+    ServiceInstancePool(Clock clock, CounterService counterService, Long heartbeatInterval, ServiceInstanceFactory serviceInstanceFactory, Integer size) {
+        this.clock = clock;
+        this.counterService = counterService;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatInterval);
+        this.serviceInstanceFactory = serviceInstanceFactory;
+
+        this.sessions = new Session[size];
+        for (int i = 0; i < size; i++) {
+            this.sessions[i] = new Session();
+        }
+    }
+
+    /**
+     * Returns an authenticated {@link ServiceInstance}, logging in if required
+     *
+     * @return an authenticated {@link ServiceInstance}
+     * @throws IOException if a new session cannot be created
+     */
+    ServiceInstance get() throws IOException {
+        Session session = this.sessions[Math.floorMod(this.next.getAndIncrement(), this.sessions.length)];
+
+        synchronized (session) {
+            Instant now = this.clock.instant();
+
+            if (session.serviceInstance != null && !isValid(session, now)) {
+                logout(session);
+            }
+
+            if (session.serviceInstance == null) {
+                session.serviceInstance = this.serviceInstanceFactory.create();
+                this.counterService.increment("vsphere.session.login");
+            } else {
+                this.counterService.increment("vsphere.session.reuse");
+            }
+
+            session.used = now;
+            return session.serviceInstance;
+        }
+    }
+
+    /**
+     * Logs out all sessions
+     */
+    void shutdown() {
+        for (Session session : this.sessions) {
+            synchronized (session) {
+                if (session.serviceInstance != null) {
+                    logout(session);
+                }
+            }
+        }
+    }
+
+    private boolean isValid(Session session, Instant now) {
+        if (Duration.between(session.used, now).compareTo(this.heartbeatInterval) < 0) {
+            return true;
+        }
+
+        try {
+            session.serviceInstance.currentTime();
+            return true;
+        } catch (RemoteException | RuntimeException e) {
+            this.logger.debug("vSphere session expired", e);
+            return false;
+        }
+    }
+
+    private void logout(Session session) {
+        try {
+            session.serviceInstance.getServerConnection().logout();
+        } catch (RuntimeException e) {
+            this.logger.debug("Unable to log out of vSphere session", e);
+        } finally {
+            session.serviceInstance = null;
+        }
+    }
+
+    private static final class Session {
+
+        private ServiceInstance serviceInstance;
+
+        private Instant used;
+
+    }
+
+}
@@ -16,31 +16,34 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
+import io.pivotal.strepsirrhini.chaoslemur.Member;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.HttpClient;
-import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLContexts;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import javax.net.ssl.SSLContext;
 import java.net.URI;
-import java.security.GeneralSecurityException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -51,59 +54,93 @@ final class StandardDirectorUtils implements DirectorUtils {
 
     private final URI root;
 
+    private final DirectorTasks tasks;
+
     @Autowired
     StandardDirectorUtils(@Value("${director.host}") String host,
-                          @Value("${director.username}") String username,
-                          @Value("${director.password}") String password,
-                          Set<ClientHttpRequestInterceptor> interceptors) throws GeneralSecurityException {
-        this(createRestTemplate(host, username, password, interceptors), UriComponentsBuilder.newInstance().scheme("https").host(host).port(25555).build().toUri());
+                          @Value("${director.username:}") String username,
+                          @Value("${director.password:}") String password,
+                          Set<ClientHttpRequestInterceptor> interceptors,
+                          HttpClientConnectionManager connectionManager,
+                          @Value("${director.connection.connectTimeout:10}") Integer connectTimeout,
+                          @Value("${director.connection.idleTimeout:30}") Long idleTimeout,
+                          @Value("${director.connection.keepAlive:30}") Long keepAlive,
+                          @Value("${director.connection.readTimeout:60}") Integer readTimeout,
+                          @Value("${discovery.format:basic}") String format,
+                          @Value("${discovery.task.pollInterval:1000}") Long taskPollInterval) {
+        this(createRestTemplate(host, username, password, interceptors, connectionManager, connectTimeout, idleTimeout, keepAlive, readTimeout),
+            UriComponentsBuilder.newInstance().scheme("https").host(host).port(25555).build().toUri(), format, taskPollInterval);
     }
 
-    StandardDirectorUtils(RestTemplate restTemplate, URI root) {
+    /**
+     * Creates an instance
+     *
+     * @param restTemplate     the {@link RestTemplate} to request the Director with
+     * @param root             the root {@link URI} of the Director
+     * @param format           {@code basic} to list the VMs of a deployment directly, or {@code full} to list them with a {@code format=full} task, which includes their state
+     * @param taskPollInterval the number of milliseconds between polls of the Director's tasks
+     */
+    StandardDirectorUtils(RestTemplate restTemplate, URI root, String format, Long taskPollInterval) {
+        Assert.isTrue("basic".equals(format) || "full".equals(format), String.format("Unknown discovery format: %s", format));
+
         this.restTemplate = restTemplate;
         this.root = root;
+        this.tasks = "full".equals(format) ? new DirectorTasks(taskPollInterval, restTemplate, root) : null;
     }
 
     @SuppressWarnings("unchecked")
     @Override
-    public Set<String> getDeployments() {
+    public Map<String, String> getDeployments() {
         URI deploymentsUri = UriComponentsBuilder.fromUri(this.root)
             .path("deployments")
             .build().toUri();
 
-        List<Map<String, String>> deployments = this.restTemplate.getForObject(deploymentsUri, List.class);
+        List<Map<String, Object>> deployments = this.restTemplate.getForObject(deploymentsUri, List.class);
 
         return deployments.stream()
-            .map(deployment -> deployment.get("name"))
-            .collect(Collectors.toSet());
+            .collect(Collectors.toMap(deployment -> (String) deployment.get("name"), StandardDirectorUtils::getVersion));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Set<Map<String, String>> getVirtualMachines(String deployment) {
+    public Set<Member> getMembers(String deployment) {
+        if (this.tasks != null) {
+            return getMembersFromTask(deployment);
+        }
+
         URI vmsUri = UriComponentsBuilder.fromUri(this.root)
             .pathSegment("deployments", deployment, "vms")
             .build().toUri();
 
-        return this.restTemplate.getForObject(vmsUri, Set.class);
+        return this.restTemplate.execute(vmsUri, HttpMethod.GET, null, new MemberResponseExtractor(deployment));
     }
 
-    private static RestTemplate createRestTemplate(String host, String username, String password, Set<ClientHttpRequestInterceptor> interceptors) throws GeneralSecurityException {
+    private static RestTemplate createRestTemplate(String host, String username, String password, Set<ClientHttpRequestInterceptor> interceptors, HttpClientConnectionManager connectionManager,
+                                                   Integer connectTimeout, Long idleTimeout, Long keepAlive, Integer readTimeout) {
         CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        credentialsProvider.setCredentials(new AuthScope(host, 25555),
-            new UsernamePasswordCredentials(username, password));
-
-        SSLContext sslContext = SSLContexts.custom()
-            .loadTrustMaterial(null, new TrustSelfSignedStrategy())
-            .useTLS()
+        if (StringUtils.hasText(username)) {
+            credentialsProvider.setCredentials(new AuthScope(host, 25555),
+                new UsernamePasswordCredentials(username, password));
+        }
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeout))
+            .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(readTimeout))
+            .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(readTimeout))
             .build();
 
-        SSLConnectionSocketFactory connectionFactory = new SSLConnectionSocketFactory(sslContext, new AllowAllHostnameVerifier());
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : TimeUnit.SECONDS.toMillis(keepAlive);
+        };
 
         HttpClient httpClient = HttpClientBuilder.create()
             .disableRedirectHandling()
+            .evictExpiredConnections()
+            .evictIdleConnections(idleTimeout, TimeUnit.SECONDS)
+            .setConnectionManager(connectionManager)
             .setDefaultCredentialsProvider(credentialsProvider)
-            .setSSLSocketFactory(connectionFactory)
+            .setDefaultRequestConfig(requestConfig)
+            .setKeepAliveStrategy(keepAliveStrategy)
             .build();
 
         RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
@@ -112,4 +149,41 @@ final class StandardDirectorUtils implements DirectorUtils {
         return restTemplate;
     }
 
+    private Set<Member> getMembersFromTask(String deployment) {
+        URI vmsUri = UriComponentsBuilder.fromUri(this.root)
+            .pathSegment("deployments", deployment, "vms")
+            .queryParam("format", "full")
+            .build().toUri();
+
+        URI taskUri = this.restTemplate.execute(vmsUri, HttpMethod.GET, null, response -> response.getHeaders().getLocation());
+        if (taskUri == null) {
+            throw new IllegalStateException(String.format("Director did not start a task listing the VMs of %s", deployment));
+        }
+
+        Long id = Long.valueOf(taskUri.getPath().substring(taskUri.getPath().lastIndexOf('/') + 1));
+
+        String state;
+        try {
+            state = this.tasks.await(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted waiting for task %d listing the VMs of %s", id, deployment), e);
+        }
+
+        if (!"done".equals(state)) {
+            throw new IllegalStateException(String.format("Task %d listing the VMs of %s finished in state %s", id, deployment, state));
+        }
+
+        URI outputUri = UriComponentsBuilder.fromUri(this.root)
+            .pathSegment("tasks", id.toString(), "output")
+            .queryParam("type", "result")
+            .build().toUri();
+
+        return this.restTemplate.execute(outputUri, HttpMethod.GET, null, new MemberResponseExtractor(deployment, true));
+    }
+
+    private static String getVersion(Map<String, Object> deployment) {
+        return String.format("releases: %s, stemcells: %s, cloud_config: %s", deployment.get("releases"), deployment.get("stemcells"), deployment.get("cloud_config"));
+    }
+
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.vmware.vim25.DynamicProperty;
+import com.vmware.vim25.ManagedObjectReference;
+import com.vmware.vim25.ObjectContent;
+import com.vmware.vim25.ObjectSpec;
+import com.vmware.vim25.PropertyFilterSpec;
+import com.vmware.vim25.PropertySpec;
+import com.vmware.vim25.mo.ServiceInstance;
+import com.vmware.vim25.mo.VirtualMachine;
+import com.vmware.vim25.mo.util.PropertyCollectorUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link VirtualMachineIndex} that retrieves the names of every virtual machine in the inventory with a single property collector request, and reuses them until they are older than the
+ * time-to-live.  A name that is not in the index causes the index to be rebuilt, so that recently created virtual machines can be found, but only if the index is older than the rebuild interval so
+ * that a batch of missing names does not cause a rebuild for each of them.
+ */
+final class StandardVirtualMachineIndex implements VirtualMachineIndex {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Clock clock;
+
+    private final Object monitor = new Object();
+
+    private final Duration rebuildInterval;
+
+    private final ServiceInstancePool serviceInstancePool;
+
+    private final Duration ttl;
+
+    private Instant created;
+
+    private Map<String, ManagedObjectReference> index;
+
+    /**
+     * Creates an instance
+     *
+     * @param clock               the {@link Clock} used to determine the age of the index
+     * @param rebuildInterval     the minimum age, in seconds, of the index before a name missing from it causes it to be rebuilt
+     * @param serviceInstancePool the {@link ServiceInstancePool} to query vSphere with
+     * @param ttl                 the number of seconds for which the index is reused
+     */
+    StandardVirtualMachineIndex(Clock clock, Long rebuildInterval, ServiceInstancePool serviceInstancePool, Long ttl) {
+        this.clock = clock;
+        this.rebuildInterval = Duration.ofSeconds(rebuildInterval);
+        this.serviceInstancePool = serviceInstancePool;
+        this.ttl = Duration.ofSeconds(ttl);
+    }
+
+    @Override
+    public VirtualMachine get(String name) throws IOException {
+        ServiceInstance serviceInstance = this.serviceInstancePool.get();
+        ManagedObjectReference reference;
+
+        synchronized (this.monitor) {
+            Instant now = this.clock.instant();
+            boolean rebuilt = false;
+
+            if (this.index == null || Duration.between(this.created, now).compareTo(this.ttl) >= 0) {
+                rebuild(serviceInstance, now);
+                rebuilt = true;
+            }
+
+            reference = this.index.get(name);
+
+            if (reference == null && !rebuilt && Duration.between(this.created, now).compareTo(this.rebuildInterval) >= 0) {
+                rebuild(serviceInstance, now);
+                reference = this.index.get(name);
+            }
+        }
+
+        return reference == null ? null : new VirtualMachine(serviceInstance.getServerConnection(), reference);
+    }
+
+    private static PropertyFilterSpec getPropertyFilterSpec(ServiceInstance serviceInstance) {
+        PropertySpec propertySpec = new PropertySpec();
+        propertySpec.setType("VirtualMachine");
+        propertySpec.setAll(false);
+        propertySpec.setPathSet(new String[]{"name"});
+
+        ObjectSpec objectSpec = new ObjectSpec();
+        objectSpec.setObj(serviceInstance.getRootFolder().getMOR());
+        objectSpec.setSkip(true);
+        objectSpec.setSelectSet(PropertyCollectorUtil.buildFullTraversalV4());
+
+        PropertyFilterSpec propertyFilterSpec = new PropertyFilterSpec();
+        propertyFilterSpec.setPropSet(new PropertySpec[]{propertySpec});
+        propertyFilterSpec.setObjectSet(new ObjectSpec[]{objectSpec});
+
+        return propertyFilterSpec;
+    }
+
+    private void rebuild(ServiceInstance serviceInstance, Instant now) throws IOException {
+        ObjectContent[] contents = serviceInstance.getPropertyCollector().retrieveProperties(new PropertyFilterSpec[]{getPropertyFilterSpec(serviceInstance)});
+
+        Map<String, ManagedObjectReference> index = new HashMap<>();
+
+        if (contents != null) {
+            for (ObjectContent content : contents) {
+                if (content.getPropSet() == null) {
+                    continue;
+                }
+
+                for (DynamicProperty property : content.getPropSet()) {
+                    if ("name".equals(property.getName())) {
+                        index.put((String) property.getVal(), content.getObj());
+                    }
+                }
+            }
+        }
+
+        this.logger.debug("Indexed {} virtual machines", index.size());
+
+        this.created = now;
+        this.index = index;
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates requests to the Director with a bearer token obtained from UAA using the client credentials grant.  The token is requested once, reused until shortly before it expires, and
+ * refreshed in the background before that happens, so that requests to the Director do not wait for UAA.
+ */
+final class UaaClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final long EXPIRY_MARGIN = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String authorization;
+
+    private final Object monitor = new Object();
+
+    private final RestTemplate restTemplate;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final URI tokenUri;
+
+    private ScheduledFuture<?> refresh;
+
+    private volatile Token token;
+
+    UaaClientHttpRequestInterceptor(String clientId, String clientSecret, RestTemplate restTemplate, ScheduledExecutorService scheduledExecutorService, URI tokenUri) {
+        this.authorization = String.format("Basic %s",
+            Base64.getEncoder().encodeToString(String.format("%s:%s", clientId, clientSecret).getBytes(StandardCharsets.UTF_8)));
+        this.restTemplate = restTemplate;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.tokenUri = tokenUri;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        request.getHeaders().set(HttpHeaders.AUTHORIZATION, String.format("Bearer %s", getToken().value));
+        return execution.execute(request, body);
+    }
+
+    /**
+     * Stops refreshing the token
+     */
+    void shutdown() {
+        this.scheduledExecutorService.shutdownNow();
+    }
+
+    private Token getToken() {
+        Token token = this.token;
+
+        if (token == null || token.isExpired()) {
+            synchronized (this.monitor) {
+                token = this.token;
+
+                if (token == null || token.isExpired()) {
+                    token = requestToken();
+                }
+            }
+        }
+
+        return token;
+    }
+
+    private void refreshToken() {
+        try {
+            synchronized (this.monitor) {
+                requestToken();
+            }
+        } catch (RuntimeException e) {
+            this.logger.warn("Unable to refresh UAA token", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Token requestToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, this.authorization);
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+
+        Map<String, Object> response = this.restTemplate.postForObject(this.tokenUri, new HttpEntity<>(form, headers), Map.class);
+
+        long expiresIn = ((Number) response.get("expires_in")).longValue();
+        Token token = new Token((String) response.get("access_token"), Instant.now().plusSeconds(expiresIn - EXPIRY_MARGIN));
+        this.token = token;
+
+        this.logger.debug("Obtained UAA token expiring in {}s", expiresIn);
+
+        if (this.refresh != null) {
+            this.refresh.cancel(false);
+        }
+        this.refresh = this.scheduledExecutorService.schedule(this::refreshToken, expiresIn * 9 / 10, TimeUnit.SECONDS);
+
+        return token;
+    }
+
+    private static final class Token {
+
+        private final Instant expiry;
+
+        private final String value;
+
+        private Token(String value, Instant expiry) {
+            this.expiry = expiry;
+            this.value = value;
+        }
+
+        private boolean isExpired() {
+            return !Instant.now().isBefore(this.expiry);
+        }
+
+    }
+
+}
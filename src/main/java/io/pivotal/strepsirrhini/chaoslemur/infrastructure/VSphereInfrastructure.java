@@ -16,8 +16,14 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
-import com.vmware.vim25.TaskInfo;
+import com.vmware.vim25.DynamicProperty;
+import com.vmware.vim25.LocalizedMethodFault;
+import com.vmware.vim25.ObjectContent;
+import com.vmware.vim25.ObjectSpec;
+import com.vmware.vim25.PropertyFilterSpec;
+import com.vmware.vim25.PropertySpec;
 import com.vmware.vim25.TaskInfoState;
+import com.vmware.vim25.mo.PropertyCollector;
 import com.vmware.vim25.mo.Task;
 import com.vmware.vim25.mo.VirtualMachine;
 import io.pivotal.strepsirrhini.chaoslemur.Member;
@@ -25,36 +31,166 @@ import org.springframework.util.Assert;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 final class VSphereInfrastructure extends AbstractDirectorUtilsInfrastructure {
 
-    private final InventoryNavigatorFactory inventoryNavigatorFactory;
+    private final Long taskPollInterval;
 
-    VSphereInfrastructure(DirectorUtils directorUtils, InventoryNavigatorFactory inventoryNavigatorFactory) {
-        super(directorUtils);
-        this.inventoryNavigatorFactory = inventoryNavigatorFactory;
+    private final Duration taskTimeout;
+
+    private final VirtualMachineIndex virtualMachineIndex;
+
+    /**
+     * Creates an instance
+     *
+     * @param directorUtils       the {@link DirectorUtils} to discover members with
+     * @param executorService     the {@link ExecutorService} that deployments are discovered on
+     * @param snapshotTtl         the number of seconds for which the members of a deployment are reused while the version of the deployment is unchanged
+     * @param timeout             the number of seconds to wait for the members of a deployment before treating that deployment as failed
+     * @param taskPollInterval    the number of milliseconds between checks of the outstanding power off tasks
+     * @param taskTimeout         the number of seconds to wait for the power off tasks of a run to complete
+     * @param virtualMachineIndex the {@link VirtualMachineIndex} used to find virtual machines
+     */
+    VSphereInfrastructure(DirectorUtils directorUtils, ExecutorService executorService, Long snapshotTtl, Long timeout, Long taskPollInterval, Long taskTimeout,
+                          VirtualMachineIndex virtualMachineIndex) {
+        super(directorUtils, executorService, snapshotTtl, timeout);
+        this.taskPollInterval = taskPollInterval;
+        this.taskTimeout = Duration.ofSeconds(taskTimeout);
+        this.virtualMachineIndex = virtualMachineIndex;
+    }
+
+    @Override
+    protected void doDestroy(Member member) throws DestructionException {
+        DestructionException failure = doDestroyAll(Collections.singletonList(member)).get(member);
+
+        if (failure != null) {
+            throw failure;
+        }
     }
 
+    /**
+     * Requests that every member is powered off, and then waits for all of the resulting tasks together so that the number of members being powered off at once is bounded by vSphere rather than by
+     * a thread per member.
+     */
     @Override
-    public void destroy(Member member) throws DestructionException {
+    protected Map<Member, DestructionException> doDestroyAll(Collection<Member> members) {
+        Map<Member, DestructionException> failures = new HashMap<>();
+        Map<Member, Task> tasks = new LinkedHashMap<>();
+
+        for (Member member : members) {
+            try {
+                VirtualMachine virtualMachine = this.virtualMachineIndex.get(member.getId());
+
+                Assert.notNull(virtualMachine, String.format("virtualMachine must not be null for %s", member));
+
+                tasks.put(member, virtualMachine.powerOffVM_Task());
+            } catch (IllegalArgumentException | IOException e) {
+                failures.put(member, new DestructionException(String.format("Unable to destroy %s", member), e));
+            }
+        }
+
         try {
-            VirtualMachine virtualMachine = (VirtualMachine) this.inventoryNavigatorFactory.create()
-                .searchManagedEntity("VirtualMachine", member.getId());
+            awaitTasks(tasks, failures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.keySet().forEach(member -> failures.put(member, new DestructionException(String.format("Interrupted while destroying %s", member), e)));
+        }
+
+        return failures;
+    }
 
-            Assert.notNull(virtualMachine, String.format("virtualMachine must not be null for %s", member));
+    /**
+     * Polls the state of every outstanding task with a single property collector request, rather than a request per task, until all of them have completed or the task timeout has elapsed.
+     */
+    private void awaitTasks(Map<Member, Task> tasks, Map<Member, DestructionException> failures) throws InterruptedException {
+        Instant deadline = Instant.now().plus(this.taskTimeout);
 
-            handleTask(virtualMachine.powerOffVM_Task());
-        } catch (InterruptedException | IOException e) {
-            throw new DestructionException(String.format("Unable to destroy %s", member), e);
+        Map<String, Member> members = new HashMap<>();
+        tasks.forEach((member, task) -> members.put(task.getMOR().getVal(), member));
+
+        while (!tasks.isEmpty()) {
+            PropertyCollector propertyCollector = tasks.values().iterator().next().getServerConnection().getServiceInstance().getPropertyCollector();
+
+            try {
+                ObjectContent[] contents = propertyCollector.retrieveProperties(new PropertyFilterSpec[]{getPropertyFilterSpec(tasks.values())});
+
+                if (contents != null) {
+                    for (ObjectContent content : contents) {
+                        Member member = members.get(content.getObj().getVal());
+
+                        if (member != null) {
+                            update(member, content, tasks, failures);
+                        }
+                    }
+                }
+            } catch (RemoteException e) {
+                tasks.keySet().forEach(member -> failures.put(member, new DestructionException(String.format("Unable to destroy %s", member), e)));
+                tasks.clear();
+            }
+
+            if (tasks.isEmpty()) {
+                return;
+            }
+
+            if (Instant.now().isAfter(deadline)) {
+                tasks.keySet().forEach(member -> failures.put(member, new DestructionException(String.format("Timed out destroying %s after %ds", member, this.taskTimeout.getSeconds()))));
+                tasks.clear();
+                return;
+            }
+
+            Thread.sleep(this.taskPollInterval);
         }
     }
 
-    private void handleTask(Task task) throws DestructionException, InterruptedException, RemoteException {
-        task.waitForTask();
+    private static PropertyFilterSpec getPropertyFilterSpec(Collection<Task> tasks) {
+        PropertySpec propertySpec = new PropertySpec();
+        propertySpec.setType("Task");
+        propertySpec.setAll(false);
+        propertySpec.setPathSet(new String[]{"info.error", "info.state"});
+
+        ObjectSpec[] objectSpecs = tasks.stream()
+            .map(task -> {
+                ObjectSpec objectSpec = new ObjectSpec();
+                objectSpec.setObj(task.getMOR());
+                objectSpec.setSkip(false);
+                return objectSpec;
+            })
+            .toArray(ObjectSpec[]::new);
+
+        PropertyFilterSpec propertyFilterSpec = new PropertyFilterSpec();
+        propertyFilterSpec.setPropSet(new PropertySpec[]{propertySpec});
+        propertyFilterSpec.setObjectSet(objectSpecs);
+
+        return propertyFilterSpec;
+    }
+
+    private static void update(Member member, ObjectContent content, Map<Member, Task> tasks, Map<Member, DestructionException> failures) {
+        LocalizedMethodFault error = null;
+        TaskInfoState state = null;
+
+        if (content.getPropSet() != null) {
+            for (DynamicProperty property : content.getPropSet()) {
+                if ("info.error".equals(property.getName())) {
+                    error = (LocalizedMethodFault) property.getVal();
+                } else if ("info.state".equals(property.getName())) {
+                    state = (TaskInfoState) property.getVal();
+                }
+            }
+        }
 
-        TaskInfo taskInfo = task.getTaskInfo();
-        if (TaskInfoState.error == taskInfo.getState()) {
-            throw new DestructionException(taskInfo.getError().getLocalizedMessage());
+        if (TaskInfoState.success == state) {
+            tasks.remove(member);
+        } else if (TaskInfoState.error == state) {
+            failures.put(member, new DestructionException(error == null ? String.format("Unable to destroy %s", member) : error.getLocalizedMessage()));
+            tasks.remove(member);
         }
     }
 
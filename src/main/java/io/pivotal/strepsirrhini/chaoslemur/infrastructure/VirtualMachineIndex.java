@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.vmware.vim25.mo.VirtualMachine;
+
+import java.io.IOException;
+
+interface VirtualMachineIndex {
+
+    /**
+     * Returns the {@link VirtualMachine} with a given name
+     *
+     * @param name the name of the {@link VirtualMachine}
+     * @return the {@link VirtualMachine} or {@code null} if no {@link VirtualMachine} has that name
+     */
+    VirtualMachine get(String name) throws IOException;
+}
@@ -54,7 +54,7 @@ final class DataDogReporter implements Reporter {
     public void sendEvent(Event event) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("title", title(event.getIdentifier()));
-        payload.put("text", message(event.getMembers()));
+        payload.put("text", message(event.getMembers(), event.getSeed()));
         payload.put("tags", this.tags);
 
         try {
@@ -64,10 +64,15 @@ final class DataDogReporter implements Reporter {
         }
     }
 
-    private String message(List<Member> members) {
+    private String message(List<Member> members, Long seed) {
         int size = members.size();
 
         String s = "\n";
+
+        if (seed != null) {
+            s += "Seed: " + seed + "\n";
+        }
+
         s += size + English.plural(" VM", size) + " destroyed:\n";
         s += members.stream()
             .sorted()
@@ -30,6 +30,8 @@ public final class Event {
 
     private final List<Member> members;
 
+    private final Long seed;
+
     /**
      * Create a new instance
      *
@@ -37,8 +39,20 @@ public final class Event {
      * @param members    the list of members destroyed during this event
      */
     public Event(UUID identifier, List<Member> members) {
+        this(identifier, members, null);
+    }
+
+    /**
+     * Create a new instance
+     *
+     * @param identifier the identifier of the event
+     * @param members    the list of members destroyed during this event
+     * @param seed       the seed that decided which members were destroyed, or {@code null} if the event cannot be replayed
+     */
+    public Event(UUID identifier, List<Member> members, Long seed) {
         this.identifier = identifier;
         this.members = members;
+        this.seed = seed;
     }
 
     /**
@@ -59,4 +73,13 @@ public final class Event {
         return this.members;
     }
 
+    /**
+     * Returns the seed that decided which members were destroyed during this event
+     *
+     * @return the seed that decided which members were destroyed during this event, or {@code null} if the event cannot be replayed
+     */
+    public Long getSeed() {
+        return this.seed;
+    }
+
 }
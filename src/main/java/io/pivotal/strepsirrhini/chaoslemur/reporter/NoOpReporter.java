@@ -27,6 +27,10 @@ final class NoOpReporter implements Reporter {
     public void sendEvent(Event event) {
         this.logger.info("Chaos Lemur Destruction ({})", event.getIdentifier());
 
+        if (event.getSeed() != null) {
+            this.logger.info("  Seed: {}", event.getSeed());
+        }
+
         event.getMembers().stream()
             .sorted()
             .forEach(member -> this.logger.info("  • {}", member.getName()));
@@ -18,11 +18,13 @@ package io.pivotal.strepsirrhini.chaoslemur;
 
 import io.pivotal.strepsirrhini.chaoslemur.infrastructure.DestructionException;
 import io.pivotal.strepsirrhini.chaoslemur.infrastructure.Infrastructure;
+import io.pivotal.strepsirrhini.chaoslemur.reporter.Event;
 import io.pivotal.strepsirrhini.chaoslemur.reporter.Reporter;
 import io.pivotal.strepsirrhini.chaoslemur.state.State;
 import io.pivotal.strepsirrhini.chaoslemur.state.StateProvider;
 import io.pivotal.strepsirrhini.chaoslemur.task.Task;
 import io.pivotal.strepsirrhini.chaoslemur.task.TaskRepository;
+import io.pivotal.strepsirrhini.chaoslemur.task.TaskStatus;
 import io.pivotal.strepsirrhini.chaoslemur.task.TaskUriBuilder;
 import io.pivotal.strepsirrhini.chaoslemur.task.Trigger;
 import org.junit.Before;
@@ -32,19 +34,23 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -54,12 +60,11 @@ import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standal
 
 public final class DestroyerTest {
 
-    private final ExecutorService executorService = mock(ExecutorService.class);
+    private final ExecutorService destructionExecutor = mock(ExecutorService.class);
 
-    private final FateEngine fateEngine = mock(FateEngine.class);
+    private final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
 
-    @SuppressWarnings("unchecked")
-    private final Future<Void> future = mock(Future.class);
+    private final FateEngine fateEngine = mock(FateEngine.class);
 
     private final Infrastructure infrastructure = mock(Infrastructure.class);
 
@@ -69,6 +74,12 @@ public final class DestroyerTest {
 
     private final Set<Member> members = Stream.of(this.member1, this.member2).collect(Collectors.toSet());
 
+    private final ExecutorService orchestrationExecutor = mock(ExecutorService.class);
+
+    private final Pacer pacer = new Pacer(1, 0, 0.0, 0L);
+
+    private final RandomSource randomSource = mock(RandomSource.class);
+
     private final Reporter reporter = mock(Reporter.class);
 
     private final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
@@ -79,8 +90,8 @@ public final class DestroyerTest {
 
     private final TaskUriBuilder taskUriBuilder = mock(TaskUriBuilder.class);
 
-    private final Destroyer destroyer = new Destroyer(false, this.executorService, this.fateEngine, this.infrastructure, this.reporter, this.stateProvider, "", this.taskRepository,
-        this.taskUriBuilder);
+    private final Destroyer destroyer = new Destroyer(this.destructionExecutor, false, this.fateEngine, this.infrastructure, this.orchestrationExecutor,
+        this.pacer, this.randomSource, this.reporter, this.stateProvider, "", false, this.taskRepository, this.taskUriBuilder);
 
     private final MockMvc mockMvc = standaloneSetup(this.destroyer).build();
 
@@ -90,39 +101,116 @@ public final class DestroyerTest {
 
         runRunnables();
 
-        verify(this.infrastructure).destroy(this.member1);
-        verify(this.infrastructure, never()).destroy(this.member2);
+        verify(this.infrastructure).destroyAll(Collections.singletonList(this.member1));
+        assertEquals(Collections.singletonList(this.member1), reportedMembers());
+        assertEquals(Long.valueOf(42L), this.eventCaptor.getValue().getSeed());
     }
 
     @Test
     public void destroyDryRun() throws DestructionException {
-        Destroyer destroyer = new Destroyer(true, this.executorService, this.fateEngine, this.infrastructure,
-            this.reporter, this.stateProvider, "", this.taskRepository, this.taskUriBuilder);
+        Destroyer destroyer = new Destroyer(this.destructionExecutor, true, this.fateEngine, this.infrastructure, this.orchestrationExecutor,
+            this.pacer, this.randomSource, this.reporter, this.stateProvider, "", false, this.taskRepository, this.taskUriBuilder);
 
         destroyer.destroy();
         runRunnables();
 
-        verify(this.infrastructure, never()).destroy(this.member1);
-        verify(this.infrastructure, never()).destroy(this.member2);
+        verify(this.infrastructure, never()).destroyAll(any());
+        assertEquals(Collections.singletonList(this.member1), reportedMembers());
     }
 
     @Test
     public void destroyError() throws DestructionException, IllegalStateException {
-        doThrow(new IllegalStateException()).when(this.infrastructure).destroy(this.member1);
+        when(this.infrastructure.destroyAll(Collections.singletonList(this.member1))).thenThrow(new IllegalStateException());
 
         this.destroyer.destroy();
 
-        verify(this.infrastructure, never()).destroy(this.member1);
+        assertEquals(Collections.emptyList(), reportedMembers());
     }
 
     @Test
-    @SuppressWarnings("unchecked")
     public void destroyFail() throws DestructionException {
-        doThrow(new DestructionException()).when(this.infrastructure).destroy(this.member1);
+        when(this.infrastructure.destroyAll(Collections.singletonList(this.member1)))
+            .thenReturn(Collections.singletonMap(this.member1, new DestructionException()));
 
         this.destroyer.destroy();
 
-        verify(this.infrastructure, never()).destroy(this.member1);
+        assertEquals(Collections.emptyList(), reportedMembers());
+    }
+
+    @Test
+    public void destroyPaced() throws DestructionException {
+        Destroyer destroyer = new Destroyer(this.destructionExecutor, false, this.fateEngine, this.infrastructure, this.orchestrationExecutor,
+            new Pacer(1, 1, 1000.0, 0L), this.randomSource, this.reporter, this.stateProvider, "", false, this.taskRepository, this.taskUriBuilder);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(this.destructionExecutor).execute(any(Runnable.class));
+
+        destroyer.destroy();
+
+        verify(this.infrastructure).destroyAll(Collections.singletonList(this.member1));
+        assertEquals(Collections.singletonList(this.member1), reportedMembers());
+    }
+
+    @Test
+    public void destroyPacedFailure() throws DestructionException {
+        Destroyer destroyer = new Destroyer(this.destructionExecutor, false, this.fateEngine, this.infrastructure, this.orchestrationExecutor,
+            new Pacer(2, 0, 1000.0, 0L), this.randomSource, this.reporter, this.stateProvider, "", false, this.taskRepository, this.taskUriBuilder);
+        when(this.fateEngine.select(this.members, 42L)).thenReturn(Arrays.asList(this.member1, this.member2));
+        when(this.infrastructure.destroyAll(Collections.singletonList(this.member1))).thenThrow(new Error());
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(this.destructionExecutor).execute(any(Runnable.class));
+
+        destroyer.destroy();
+
+        verify(this.infrastructure).destroyAll(Collections.singletonList(this.member2));
+        assertEquals(Collections.singletonList(this.member2), reportedMembers());
+    }
+
+    @Test(timeout = 5_000)
+    public void destroyPacedInterrupted() throws DestructionException, InterruptedException {
+        Pacer pacer = new Pacer(2, 2, 0.0, 0L);
+        Destroyer destroyer = new Destroyer(this.destructionExecutor, false, this.fateEngine, this.infrastructure, this.orchestrationExecutor,
+            pacer, this.randomSource, this.reporter, this.stateProvider, "", false, this.taskRepository, this.taskUriBuilder);
+        when(this.fateEngine.select(this.members, 42L)).thenReturn(Arrays.asList(this.member1, this.member2));
+        doAnswer(invocation -> {
+            Thread.currentThread().interrupt();
+            return null;
+        }).when(this.destructionExecutor).execute(any(Runnable.class));
+
+        destroyer.destroy();
+        Thread.interrupted();
+
+        pacer.acquire();
+        pacer.acquire();
+        verify(this.infrastructure, never()).destroyAll(any());
+        assertEquals(Collections.emptyList(), reportedMembers());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void destroyStreaming() throws DestructionException {
+        Destroyer destroyer = new Destroyer(this.destructionExecutor, false, this.fateEngine, this.infrastructure, this.orchestrationExecutor,
+            this.pacer, this.randomSource, this.reporter, this.stateProvider, "", true, this.taskRepository, this.taskUriBuilder);
+        when(this.fateEngine.isIncremental()).thenReturn(true);
+        when(this.fateEngine.shouldDie(this.member1, 42L)).thenReturn(true);
+        when(this.fateEngine.shouldDie(this.member2, 42L)).thenReturn(false);
+        doAnswer(invocation -> {
+            this.members.forEach((Consumer<Member>) invocation.getArguments()[0]);
+            return null;
+        }).when(this.infrastructure).getMembers(any(Consumer.class));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(this.destructionExecutor).execute(any(Runnable.class));
+
+        destroyer.destroy();
+
+        verify(this.infrastructure, never()).getMembers();
+        verify(this.infrastructure).destroyAll(Collections.singletonList(this.member1));
+        assertEquals(Collections.singletonList(this.member1), reportedMembers());
     }
 
     @Test
@@ -134,13 +222,6 @@ public final class DestroyerTest {
         verify(this.infrastructure, never()).getMembers();
     }
 
-    @Before
-    @SuppressWarnings("unchecked")
-    public void executor() throws ExecutionException, InterruptedException {
-        when((Future<Void>) this.executorService.submit(any(Runnable.class))).thenReturn(this.future);
-        when(this.future.get()).thenReturn(null);
-    }
-
     @Test
     public void invalidKey() throws Exception {
         this.mockMvc.perform(post("/chaos")
@@ -148,7 +229,7 @@ public final class DestroyerTest {
             .content("{\"foo\":\"destroy\"}"))
             .andExpect(status().isBadRequest());
 
-        verify(this.infrastructure, never()).destroy(this.member1);
+        verify(this.infrastructure, never()).destroyAll(any());
     }
 
     @Test
@@ -158,7 +239,7 @@ public final class DestroyerTest {
             .content("{\"event\":\"foo\"}"))
             .andExpect(status().isBadRequest());
 
-        verify(this.infrastructure, never()).destroy(this.member1);
+        verify(this.infrastructure, never()).destroyAll(any());
     }
 
     @Test
@@ -175,23 +256,39 @@ public final class DestroyerTest {
 
         runRunnables();
 
-        verify(this.infrastructure).destroy(this.member1);
-        verify(this.infrastructure, never()).destroy(this.member2);
+        verify(this.infrastructure).destroyAll(Collections.singletonList(this.member1));
+    }
+
+    @Test
+    public void manualDestroyRejected() throws Exception {
+        Task task = new Task(2L, Trigger.MANUAL);
+        when(this.taskRepository.create(Trigger.MANUAL)).thenReturn(task);
+        doThrow(new RejectedExecutionException()).when(this.orchestrationExecutor).execute(any(Runnable.class));
+
+        this.mockMvc.perform(post("/chaos")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"event\":\"destroy\"}"))
+            .andExpect(status().isServiceUnavailable());
+
+        verify(this.infrastructure, never()).destroyAll(any());
+        assertEquals(TaskStatus.COMPLETE, task.getStatus());
     }
 
     @Before
     public void members() {
         when(this.infrastructure.getMembers()).thenReturn(this.members);
-        when(this.fateEngine.shouldDie(this.member1)).thenReturn(true);
-        when(this.fateEngine.shouldDie(this.member2)).thenReturn(false);
+        when(this.fateEngine.select(this.members, 42L)).thenReturn(Collections.singletonList(this.member1));
+        when(this.randomSource.nextSeed()).thenReturn(42L);
         when(this.taskRepository.create(Trigger.SCHEDULED)).thenReturn(new Task(1L, Trigger.SCHEDULED));
     }
 
-    private void runRunnables() {
-        verify(this.executorService, atMost(1)).execute(this.runnableCaptor.capture());
-        this.runnableCaptor.getAllValues().forEach(Runnable::run);
+    private List<Member> reportedMembers() {
+        verify(this.reporter).sendEvent(this.eventCaptor.capture());
+        return this.eventCaptor.getValue().getMembers();
+    }
 
-        verify(this.executorService, times(2)).submit(this.runnableCaptor.capture());
+    private void runRunnables() {
+        verify(this.orchestrationExecutor, atMost(1)).execute(this.runnableCaptor.capture());
         this.runnableCaptor.getAllValues().forEach(Runnable::run);
     }
 
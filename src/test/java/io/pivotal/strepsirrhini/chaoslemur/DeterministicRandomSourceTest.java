@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class DeterministicRandomSourceTest {
+
+    private final Member member1 = new Member("test-id-1", "test-deployment", "test-job", "test-name-1");
+
+    private final Member member2 = new Member("test-id-2", "test-deployment", "test-job", "test-name-2");
+
+    private final Random random = mock(Random.class);
+
+    @Test
+    public void nextFloat() {
+        DeterministicRandomSource randomSource = new DeterministicRandomSource(this.random, null);
+
+        for (long seed = 0; seed < 1000; seed++) {
+            float value = randomSource.nextFloat(this.member1, seed);
+            assertTrue(value >= 0.0f && value < 1.0f);
+        }
+    }
+
+    @Test
+    public void nextFloatReplayable() {
+        DeterministicRandomSource randomSource1 = new DeterministicRandomSource(this.random, null);
+        DeterministicRandomSource randomSource2 = new DeterministicRandomSource(this.random, null);
+
+        assertEquals(randomSource1.nextFloat(this.member1, 42L), randomSource2.nextFloat(this.member1, 42L), 0.0f);
+        assertNotEquals(randomSource1.nextFloat(this.member1, 42L), randomSource1.nextFloat(this.member2, 42L), 0.0f);
+        assertNotEquals(randomSource1.nextFloat(this.member1, 42L), randomSource1.nextFloat(this.member1, 43L), 0.0f);
+    }
+
+    @Test
+    public void nextSeedConfigured() {
+        assertEquals(Long.valueOf(42L), new DeterministicRandomSource(this.random, 42L).nextSeed());
+    }
+
+    @Test
+    public void nextSeedRandom() {
+        when(this.random.nextLong()).thenReturn(43L);
+
+        assertEquals(Long.valueOf(43L), new DeterministicRandomSource(this.random, null).nextSeed());
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public final class ExecutorMetricsTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(5));
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics(this.executor, "test.executor");
+
+    @Test
+    public void metrics() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        this.executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        this.executor.execute(() -> await(release));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        Map<String, Number> expected = new HashMap<>();
+        expected.put("test.executor.active", 1);
+        expected.put("test.executor.completed", 0L);
+        expected.put("test.executor.max", 2);
+        expected.put("test.executor.queued", 1);
+
+        Map<String, Number> actual = new HashMap<>();
+        for (Metric<?> metric : this.metrics.metrics()) {
+            actual.put(metric.getName(), metric.getValue());
+        }
+
+        release.countDown();
+        assertEquals(expected, actual);
+    }
+
+    @After
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedExecutor() {
+        new ExecutorMetrics(mock(ExecutorService.class), "test.executor");
+    }
+
+    @Test
+    public void virtualThreadMetrics() {
+        VirtualThreadExecutorService executor = new VirtualThreadExecutorService(this.executor, 2, "test-");
+
+        Map<String, Number> expected = new HashMap<>();
+        expected.put("test.executor.active", 0);
+        expected.put("test.executor.completed", 0L);
+        expected.put("test.executor.max", 2);
+        expected.put("test.executor.queued", 0);
+
+        Map<String, Number> actual = new HashMap<>();
+        for (Metric<?> metric : new ExecutorMetrics(executor, "test.executor").metrics()) {
+            actual.put(metric.getName(), metric.getValue());
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
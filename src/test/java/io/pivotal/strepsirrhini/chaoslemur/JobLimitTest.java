@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class JobLimitTest {
+
+    @Test
+    public void absolute() {
+        JobLimit jobLimit = new JobLimit("1");
+
+        assertTrue(jobLimit.isLimited());
+        assertEquals(1, jobLimit.get(3));
+        assertEquals(0, jobLimit.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative() {
+        new JobLimit("-1");
+    }
+
+    @Test
+    public void percentage() {
+        JobLimit jobLimit = new JobLimit(" 34% ");
+
+        assertTrue(jobLimit.isLimited());
+        assertEquals(1, jobLimit.get(3));
+        assertEquals(3, jobLimit.get(10));
+    }
+
+    @Test
+    public void unlimited() {
+        JobLimit jobLimit = new JobLimit("");
+
+        assertFalse(jobLimit.isLimited());
+        assertEquals(3, jobLimit.get(3));
+    }
+
+}
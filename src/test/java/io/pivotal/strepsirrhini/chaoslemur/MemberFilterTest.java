@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class MemberFilterTest {
+
+    @Test
+    public void caseInsensitive() {
+        MemberFilter filter = new MemberFilter(new String[]{"Test-Deployment"});
+
+        assertTrue(filter.matches(new Member("test-id", "test-deployment", "test-job", "test-name")));
+        assertTrue(filter.matches(new Member("test-id", "TEST-DEPLOYMENT", "test-job", "test-name")));
+    }
+
+    @Test
+    public void empty() {
+        MemberFilter filter = new MemberFilter(new String[]{" "});
+
+        assertTrue(filter.isEmpty());
+        assertFalse(filter.matches(new Member("test-id", "test-deployment", "test-job", "test-name")));
+    }
+
+    @Test
+    public void glob() {
+        MemberFilter filter = new MemberFilter(new String[]{"test-job-*", "router_z?"});
+
+        assertFalse(filter.isEmpty());
+        assertTrue(filter.matches(new Member("test-id", "test-deployment", "test-job-1", "test-name")));
+        assertTrue(filter.matches(new Member("test-id", "test-deployment", "ROUTER_Z1", "test-name")));
+        assertFalse(filter.matches(new Member("test-id", "test-deployment", "router_z10", "test-name")));
+        assertFalse(filter.matches(new Member("test-id", "test-deployment", "test-job", "test-name")));
+    }
+
+    @Test
+    public void globQuotesLiterals() {
+        MemberFilter filter = new MemberFilter(new String[]{"test.job*"});
+
+        assertTrue(filter.matches(new Member("test-id", "test-deployment", "test.job-1", "test-name")));
+        assertFalse(filter.matches(new Member("test-id", "test-deployment", "test-job-1", "test-name")));
+    }
+
+    @Test
+    public void jobOrDeployment() {
+        MemberFilter filter = new MemberFilter(new String[]{"test-deployment-1", "test-job-1"});
+
+        assertTrue(filter.matches(new Member("test-id", "test-deployment-1", "test-job", "test-name")));
+        assertTrue(filter.matches(new Member("test-id", "test-deployment", "test-job-1", "test-name")));
+        assertFalse(filter.matches(new Member("test-id", "test-deployment", "test-job", "test-name")));
+    }
+
+}
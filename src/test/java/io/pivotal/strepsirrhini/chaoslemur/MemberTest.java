@@ -18,8 +18,12 @@ package io.pivotal.strepsirrhini.chaoslemur;
 
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 public final class MemberTest {
 
@@ -32,6 +36,20 @@ public final class MemberTest {
         assertTrue(this.member.compareTo(compare) > 0);
     }
 
+    @Test
+    public void placement() {
+        Member member = new Member("test-id", "test-deployment", "test-job", "test-name", "test-az", Collections.singletonList("10.0.0.1"), "running", true);
+
+        assertEquals("test-az", member.getAz());
+        assertEquals(Collections.singletonList("10.0.0.1"), member.getIps());
+        assertEquals("running", member.getState());
+        assertTrue(member.isResurrectionPaused());
+        assertNull(this.member.getAz());
+        assertEquals(Collections.emptyList(), this.member.getIps());
+        assertNull(this.member.getState());
+        assertFalse(this.member.isResurrectionPaused());
+    }
+
     @Test
     public void test() {
         assertEquals("test-id", this.member.getId());
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class PacerTest {
+
+    @Test
+    public void disabled() {
+        Pacer pacer = new Pacer(1, 0, 0.0, 0L);
+
+        assertFalse(pacer.isEnabled());
+        assertFalse(pacer.isWindowed());
+        assertArrayEquals(new long[3], pacer.getOffsets(3));
+    }
+
+    @Test
+    public void maxInFlight() throws InterruptedException {
+        Pacer pacer = new Pacer(1, 1, 0.0, 0L);
+        assertTrue(pacer.isEnabled());
+
+        pacer.acquire();
+        Thread thread = new Thread(() -> {
+            try {
+                pacer.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        thread.join(100);
+        assertTrue(thread.isAlive());
+
+        pacer.release();
+        thread.join(1000);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void rate() throws InterruptedException {
+        Pacer pacer = new Pacer(1, 0, 20.0, 0L);
+        assertTrue(pacer.isEnabled());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            pacer.acquire();
+            pacer.release();
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+    }
+
+    @Test
+    public void window() {
+        Pacer pacer = new Pacer(1, 0, 0.0, 2L);
+        assertTrue(pacer.isEnabled());
+        assertTrue(pacer.isWindowed());
+
+        long[] offsets = pacer.getOffsets(100);
+
+        for (int i = 0; i < offsets.length; i++) {
+            assertTrue(offsets[i] >= 0 && offsets[i] < 2000);
+            assertTrue(i == 0 || offsets[i - 1] <= offsets[i]);
+        }
+    }
+
+}
@@ -22,17 +22,37 @@ import static org.junit.Assert.assertEquals;
 
 public final class PrecedenceTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void immutable() {
+        Precedence<String, String> precedence = new Precedence<String, String>()
+            .candidate(input -> null);
+
+        precedence.candidate("test-string");
+
+        precedence.get("test-input");
+    }
+
     @Test(expected = IllegalStateException.class)
     public void onlyNullValues() {
-        new Precedence<>().get();
+        new Precedence<>().get(null);
+    }
+
+    @Test
+    public void reusable() {
+        Precedence<String, String> precedence = new Precedence<String, String>()
+            .candidate(input -> input.startsWith("test") ? input : null)
+            .candidate("default-string");
+
+        assertEquals("test-input", precedence.get("test-input"));
+        assertEquals("default-string", precedence.get("other-input"));
     }
 
     @Test
     public void test() {
-        new Precedence<String>()
-            .candidate(() -> null)
+        new Precedence<String, String>()
+            .candidate(input -> null)
             .candidate("test-string")
-            .get(s -> {
+            .get("test-input", s -> {
                 assertEquals("test-string", s);
                 return "alternate-string";
             });
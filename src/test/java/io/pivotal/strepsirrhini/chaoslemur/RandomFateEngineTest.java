@@ -19,8 +19,14 @@ package io.pivotal.strepsirrhini.chaoslemur;
 import org.junit.Test;
 import org.springframework.mock.env.MockEnvironment;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -36,26 +42,39 @@ public final class RandomFateEngineTest {
 
     private final Random random = mock(Random.class);
 
+    private final RandomSource randomSource = new SecureRandomSource(this.random);
+
     private final String[] whitelist = new String[0];
 
-    private final RandomFateEngine fateEngine = new RandomFateEngine(this.blacklist, 0.5f, this.environment,
-        this.random, this.whitelist);
+    private final RandomFateEngine fateEngine = new RandomFateEngine(this.blacklist, 0.5f, this.environment, "",
+        this.randomSource, 1, "probability", 20f, this.whitelist);
 
     @Test
     public void blacklistOnly() {
         when(this.random.nextFloat()).thenReturn(0.0f);
 
-        assertTrue(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1")));
+        assertTrue(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1"), null));
 
-        assertFalse(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1")));
-        assertFalse(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1")));
+        assertFalse(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1"), null));
+        assertFalse(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1"), null));
+    }
+
+    @Test
+    public void clearProbabilities() {
+        when(this.random.nextFloat()).thenReturn(0.5f);
+        assertFalse(this.fateEngine.shouldDie(this.member, null));
+
+        this.environment.setProperty("test-job.probability", "1.0");
+        this.fateEngine.clearProbabilities();
+
+        assertTrue(this.fateEngine.shouldDie(this.member, null));
     }
 
     @Test
     public void defaultPrecedence() {
         when(this.random.nextFloat()).thenReturn(0.4f);
 
-        assertTrue(this.fateEngine.shouldDie(this.member));
+        assertTrue(this.fateEngine.shouldDie(this.member, null));
     }
 
     @Test
@@ -63,7 +82,24 @@ public final class RandomFateEngineTest {
         when(this.random.nextFloat()).thenReturn(0.5f);
         this.environment.setProperty("test-deployment.probability", "1.0");
 
-        assertTrue(this.fateEngine.shouldDie(this.member));
+        assertTrue(this.fateEngine.shouldDie(this.member, null));
+    }
+
+    @Test
+    public void healthy() {
+        when(this.random.nextFloat()).thenReturn(0.0f);
+
+        assertTrue(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1", null, Collections.emptyList(), "running", false), null));
+
+        assertFalse(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1", null, Collections.emptyList(), "unresponsive", false), null));
+        assertFalse(this.fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1", null, Collections.emptyList(), "running", true), null));
+    }
+
+    @Test
+    public void isIncremental() {
+        assertTrue(this.fateEngine.isIncremental());
+        assertFalse(new RandomFateEngine(new String[0], 0.5f, this.environment, "", this.randomSource, 1, "count", 20f, new String[0]).isIncremental());
+        assertFalse(new RandomFateEngine(new String[0], 0.5f, this.environment, "1", this.randomSource, 1, "probability", 20f, new String[0]).isIncremental());
     }
 
     @Test
@@ -71,17 +107,110 @@ public final class RandomFateEngineTest {
         when(this.random.nextFloat()).thenReturn(0.5f);
         this.environment.setProperty("test-job.probability", "1.0");
 
-        assertTrue(this.fateEngine.shouldDie(this.member));
+        assertTrue(this.fateEngine.shouldDie(this.member, null));
     }
 
     @Test
     public void neitherWhiteListNorBlacklistSpecified() {
         when(this.random.nextFloat()).thenReturn(0.0f);
-        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, this.random, new String[0]);
+        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, "", this.randomSource, 1, "probability", 20f, new String[0]);
 
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1")));
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1")));
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1")));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1"), null));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1"), null));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1"), null));
+    }
+
+    @Test
+    public void probabilityResolvedOnce() {
+        when(this.random.nextFloat()).thenReturn(0.5f);
+        assertFalse(this.fateEngine.shouldDie(this.member, null));
+
+        this.environment.setProperty("test-job.probability", "1.0");
+
+        assertFalse(this.fateEngine.shouldDie(this.member, null));
+    }
+
+    @Test
+    public void select() {
+        when(this.random.nextFloat()).thenReturn(0.0f);
+
+        Member member1 = new Member("test-id-1", "test-deployment", "test-job", "test-name-1");
+        Member member2 = new Member("test-id-2", "test-deployment", "test-job-1", "test-name-2");
+
+        assertEquals(Collections.singletonList(member1), this.fateEngine.select(Arrays.asList(member1, member2), null));
+    }
+
+    @Test
+    public void selectCount() {
+        RandomFateEngine fateEngine = new RandomFateEngine(this.blacklist, 0.5f, this.environment, "", new DeterministicRandomSource(this.random, null), 3, "count", 20f,
+            this.whitelist);
+
+        List<Member> members = members("test-deployment", "test-job", 10);
+        members.addAll(members("test-deployment-1", "test-job", 10));
+
+        List<Member> victims = fateEngine.select(members, 42L);
+
+        assertEquals(3, victims.size());
+        assertTrue(victims.stream().allMatch(member -> "test-deployment".equals(member.getDeployment())));
+        assertEquals(victims, fateEngine.select(members, 42L));
+    }
+
+    @Test
+    public void selectJobLimit() {
+        when(this.random.nextFloat()).thenReturn(0.0f);
+        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, "1", this.randomSource, 1, "probability", 20f, new String[0]);
+
+        List<Member> members = members("test-deployment", "test-job-2", 3);
+        members.addAll(members("test-deployment", "test-job-3", 3));
+
+        List<Member> victims = fateEngine.select(members, null);
+
+        assertEquals(2, victims.size());
+        assertEquals(1, victims.stream().filter(member -> "test-job-2".equals(member.getJob())).count());
+        assertEquals(1, victims.stream().filter(member -> "test-job-3".equals(member.getJob())).count());
+    }
+
+    @Test
+    public void selectJobLimitPercentage() {
+        when(this.random.nextFloat()).thenReturn(0.0f);
+        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, "50%", this.randomSource, 1, "probability", 20f, new String[0]);
+
+        List<Member> members = members("test-deployment", "test-job-2", 5);
+        members.addAll(members("test-deployment", "test-job-3", 1));
+
+        List<Member> victims = fateEngine.select(members, null);
+
+        assertEquals(2, victims.size());
+        assertTrue(victims.stream().allMatch(member -> "test-job-2".equals(member.getJob())));
+    }
+
+    @Test
+    public void selectJobLimitUnhealthy() {
+        when(this.random.nextFloat()).thenReturn(0.0f);
+        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, "1", this.randomSource, 1, "probability", 20f, new String[0]);
+
+        List<Member> members = members("test-deployment", "test-job-2", 2);
+        members.add(new Member("test-id-unresponsive", "test-deployment", "test-job-2", "test-job-2/2", null, Collections.emptyList(), "unresponsive", false));
+        members.addAll(members("test-deployment", "test-job-3", 3));
+
+        List<Member> victims = fateEngine.select(members, null);
+
+        assertEquals(1, victims.size());
+        assertTrue(victims.stream().allMatch(member -> "test-job-3".equals(member.getJob())));
+    }
+
+    @Test
+    public void selectPercentage() {
+        RandomFateEngine fateEngine = new RandomFateEngine(this.blacklist, 0.5f, this.environment, "", new DeterministicRandomSource(this.random, null), 1, "percentage", 20f,
+            this.whitelist);
+
+        List<Member> members = members("test-deployment", "test-job-2", 10);
+        members.addAll(members("test-deployment", "test-job-3", 3));
+
+        List<Member> victims = fateEngine.select(members, 42L);
+
+        assertEquals(2, victims.size());
+        assertTrue(victims.stream().allMatch(member -> "test-job-2".equals(member.getJob())));
     }
 
     @Test
@@ -90,13 +219,13 @@ public final class RandomFateEngineTest {
 
         String[] whitelist = new String[]{"test-deployment-1"};
         String[] blacklist = new String[]{"test-job-3", "test-job-4"};
-        RandomFateEngine fateEngine = new RandomFateEngine(blacklist, 0.5f, this.environment, this.random, whitelist);
+        RandomFateEngine fateEngine = new RandomFateEngine(blacklist, 0.5f, this.environment, "", this.randomSource, 1, "probability", 20f, whitelist);
 
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-1", "test-name-1")));
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-2", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-3", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-4", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-2", "test-job-5", "test-name-1")));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-1", "test-name-1"), null));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-2", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-3", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-4", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-2", "test-job-5", "test-name-1"), null));
     }
 
     @Test
@@ -105,13 +234,13 @@ public final class RandomFateEngineTest {
 
         String[] whitelist = new String[]{"test-job-1"};
         String[] blacklist = new String[]{"test-job-3", "test-job-4"};
-        RandomFateEngine fateEngine = new RandomFateEngine(blacklist, 0.5f, this.environment, this.random, whitelist);
+        RandomFateEngine fateEngine = new RandomFateEngine(blacklist, 0.5f, this.environment, "", this.randomSource, 1, "probability", 20f, whitelist);
 
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-1", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-2", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-3", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-4", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-2", "test-job-5", "test-name-1")));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-1", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-2", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-3", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job-4", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-2", "test-job-5", "test-name-1"), null));
     }
 
     @Test
@@ -119,11 +248,11 @@ public final class RandomFateEngineTest {
         when(this.random.nextFloat()).thenReturn(0.0f);
 
         String[] whitelist = new String[]{"test-deployment"};
-        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, this.random, whitelist);
+        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, "", this.randomSource, 1, "probability", 20f, whitelist);
 
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1")));
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1")));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1"), null));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1"), null));
     }
 
     @Test
@@ -131,11 +260,17 @@ public final class RandomFateEngineTest {
         when(this.random.nextFloat()).thenReturn(0.0f);
 
         String[] whitelist = new String[]{"test-job-1"};
-        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, this.random, whitelist);
+        RandomFateEngine fateEngine = new RandomFateEngine(new String[0], 0.5f, this.environment, "", this.randomSource, 1, "probability", 20f, whitelist);
+
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1"), null));
+        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1"), null));
+        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1"), null));
+    }
 
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job", "test-name-1")));
-        assertTrue(fateEngine.shouldDie(new Member("test-id-1", "test-deployment", "test-job-1", "test-name-1")));
-        assertFalse(fateEngine.shouldDie(new Member("test-id-1", "test-deployment-1", "test-job", "test-name-1")));
+    private static List<Member> members(String deployment, String job, int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Member(String.format("%s-%s-%d", deployment, job, i), deployment, job, String.format("%s/%d", job, i)))
+            .collect(Collectors.toList());
     }
 
 }
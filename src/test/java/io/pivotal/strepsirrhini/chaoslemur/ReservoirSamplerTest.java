@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+
+public final class ReservoirSamplerTest {
+
+    @Test
+    public void offer() {
+        ReservoirSampler<String> sampler = new ReservoirSampler<>(2);
+
+        sampler.offer(0.5f, "test-item-1");
+        sampler.offer(0.1f, "test-item-2");
+        sampler.offer(0.9f, "test-item-3");
+        sampler.offer(0.3f, "test-item-4");
+
+        assertEquals(new HashSet<>(Arrays.asList("test-item-2", "test-item-4")), new HashSet<>(sampler.getSample()));
+    }
+
+    @Test
+    public void offerFewerThanCapacity() {
+        ReservoirSampler<String> sampler = new ReservoirSampler<>(2);
+
+        sampler.offer(0.5f, "test-item-1");
+
+        assertEquals(Collections.singletonList("test-item-1"), sampler.getSample());
+    }
+
+    @Test
+    public void offerZeroCapacity() {
+        ReservoirSampler<String> sampler = new ReservoirSampler<>(0);
+
+        sampler.offer(0.5f, "test-item-1");
+
+        assertEquals(Collections.emptyList(), sampler.getSample());
+    }
+
+}
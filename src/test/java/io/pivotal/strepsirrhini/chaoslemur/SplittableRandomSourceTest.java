@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class SplittableRandomSourceTest {
+
+    private final Member member = new Member("test-id", "test-deployment", "test-job", "test-name");
+
+    @Test
+    public void nextFloat() {
+        SplittableRandomSource randomSource = new SplittableRandomSource(null);
+
+        for (int i = 0; i < 1000; i++) {
+            float value = randomSource.nextFloat(this.member, null);
+            assertTrue(value >= 0.0f && value < 1.0f);
+        }
+    }
+
+    @Test
+    public void nextFloatSeeded() {
+        assertEquals(new SplittableRandomSource(42L).nextFloat(this.member, null), new SplittableRandomSource(42L).nextFloat(this.member, null), 0.0f);
+    }
+
+    @Test
+    public void nextSeed() {
+        assertNull(new SplittableRandomSource(42L).nextSeed());
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class VirtualThreadExecutorServiceTest {
+
+    private final VirtualThreadExecutorService executorService = new VirtualThreadExecutorService(Executors.newCachedThreadPool(), 2, "test-");
+
+    @Test
+    public void execute() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(5);
+
+        for (int i = 0; i < 5; i++) {
+            this.executorService.execute(() -> {
+                await(release);
+                completed.countDown();
+            });
+        }
+
+        awaitQueued(3);
+        assertEquals(2, this.executorService.getActiveCount());
+        assertEquals(2, this.executorService.getMaximumPoolSize());
+
+        release.countDown();
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+
+        this.executorService.shutdown();
+        assertTrue(this.executorService.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(5, this.executorService.getCompletedTaskCount());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void interruptedWhileQueued() throws ExecutionException, InterruptedException, TimeoutException {
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 2; i++) {
+            this.executorService.execute(() -> await(release));
+        }
+
+        Future<?> future = this.executorService.submit(() -> {
+        });
+
+        awaitQueued(1);
+        this.executorService.shutdownNow();
+
+        future.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void platformThreads() throws ExecutionException, InterruptedException {
+        VirtualThreadExecutorService executorService = new VirtualThreadExecutorService(null, 2, "test-");
+
+        try {
+            assertTrue(executorService.submit(() -> Thread.currentThread().getName()).get().startsWith("test-"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @After
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitQueued(int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+
+        while (this.executorService.getQueuedCount() < queued && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(queued, this.executorService.getQueuedCount());
+    }
+
+}
@@ -17,76 +17,245 @@
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
 import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.junit.After;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class AbstractDirectorUtilsInfrastructureTest {
 
-    private final Set<String> deployments = new HashSet<>();
+    private final Map<String, String> deployments = new HashMap<>();
 
     private final DirectorUtils directorUtils = mock(DirectorUtils.class);
 
-    private final StubDirectorUtilsInfrastructure infrastructure = new StubDirectorUtilsInfrastructure(this.directorUtils);
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
 
-    private final Set<Map<String, String>> vms1 = new HashSet<>();
+    private final StubDirectorUtilsInfrastructure infrastructure = new StubDirectorUtilsInfrastructure(this.directorUtils, this.executorService, 600L, 1L);
 
-    private final Set<Map<String, String>> vms2 = new HashSet<>();
+    private final Member member1 = new Member("cid1", "deployment1", "job1", "job1/1");
+
+    private final Member member2 = new Member("cid2", "deployment2", "job2", "job2-partition-uuid/2");
+
+    private final Set<Member> members1 = Collections.singleton(this.member1);
+
+    private final Set<Member> members2 = Collections.singleton(this.member2);
 
     {
-        this.deployments.add("deployment1");
-        this.deployments.add("deployment2-uuid");
+        this.deployments.put("deployment1", "version1");
+        this.deployments.put("deployment2-uuid", "version2");
     }
 
-    {
-        Map<String, String> vm = new HashMap<>();
-        vm.put("cid", "cid1");
-        vm.put("job", "job1");
-        vm.put("index", "1");
+    @Test
+    public void destroyDiscardsSnapshot() throws DestructionException {
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenReturn(this.members2);
+
+        this.infrastructure.getMembers();
+        this.infrastructure.destroy(this.member2);
+        this.infrastructure.getMembers();
 
-        this.vms1.add(vm);
+        verify(this.directorUtils).getMembers("deployment1");
+        verify(this.directorUtils, times(2)).getMembers("deployment2-uuid");
     }
 
-    {
-        Map<String, String> vm = new HashMap<>();
-        vm.put("cid", "cid2");
-        vm.put("job", "job2-partition-uuid");
-        vm.put("index", "2");
+    @Test
+    public void destroyAllDiscardsSnapshots() {
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenReturn(this.members2);
+
+        this.infrastructure.getMembers();
+        this.infrastructure.destroyAll(Collections.singletonList(this.member2));
+        this.infrastructure.getMembers();
 
-        this.vms2.add(vm);
+        verify(this.directorUtils).getMembers("deployment1");
+        verify(this.directorUtils, times(2)).getMembers("deployment2-uuid");
     }
 
     @Test
     public void getMembers() {
         when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
-        when(this.directorUtils.getVirtualMachines("deployment1")).thenReturn(this.vms1);
-        when(this.directorUtils.getVirtualMachines("deployment2-uuid")).thenReturn(this.vms2);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenReturn(this.members2);
 
         Set<Member> expected = new HashSet<>();
-        expected.add(new Member("cid1", "deployment1", "job1", "job1/1"));
-        expected.add(new Member("cid2", "deployment2", "job2", "job2-partition-uuid/2"));
+        expected.add(this.member1);
+        expected.add(this.member2);
 
         Set<Member> actual = this.infrastructure.getMembers();
 
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void getMembersFailedDeployment() {
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenThrow(new IllegalStateException());
+
+        Set<Member> expected = new HashSet<>();
+        expected.add(this.member1);
+
+        assertEquals(expected, this.infrastructure.getMembers());
+    }
+
+    @Test
+    public void getMembersQueuedDeployment() {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        StubDirectorUtilsInfrastructure infrastructure = new StubDirectorUtilsInfrastructure(this.directorUtils, executorService, 600L, 1L);
+
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenAnswer(invocation -> {
+            Thread.sleep(800);
+            return this.members1;
+        });
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenAnswer(invocation -> {
+            Thread.sleep(800);
+            return this.members2;
+        });
+
+        Set<Member> expected = new HashSet<>();
+        expected.add(this.member1);
+        expected.add(this.member2);
+
+        try {
+            assertEquals(expected, infrastructure.getMembers());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getMembersRemovedDeployment() {
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments, Collections.singletonMap("deployment1", "version1"));
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenReturn(this.members2);
+
+        this.infrastructure.getMembers();
+
+        Set<Member> expected = new HashSet<>();
+        expected.add(this.member1);
+
+        assertEquals(expected, this.infrastructure.getMembers());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getMembersReusesUnchangedDeployments() {
+        Map<String, String> changedDeployments = new HashMap<>(this.deployments);
+        changedDeployments.put("deployment2-uuid", "version3");
+
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments, changedDeployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenReturn(this.members2);
+
+        Set<Member> first = this.infrastructure.getMembers();
+        Set<Member> second = this.infrastructure.getMembers();
+
+        assertEquals(first, second);
+        verify(this.directorUtils).getMembers("deployment1");
+        verify(this.directorUtils, times(2)).getMembers("deployment2-uuid");
+    }
+
+    @Test
+    public void getMembersSnapshotExpired() {
+        StubDirectorUtilsInfrastructure infrastructure = new StubDirectorUtilsInfrastructure(this.directorUtils, this.executorService, 0L, 1L);
+
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenReturn(this.members2);
+
+        infrastructure.getMembers();
+        infrastructure.getMembers();
+
+        verify(this.directorUtils, times(2)).getMembers("deployment1");
+        verify(this.directorUtils, times(2)).getMembers("deployment2-uuid");
+    }
+
+    @Test
+    public void getMembersStreaming() {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenAnswer(invocation -> {
+            latch.await();
+            return this.members2;
+        });
+
+        List<Member> actual = new ArrayList<>();
+        this.infrastructure.getMembers(member -> {
+            actual.add(member);
+            latch.countDown();
+        });
+
+        assertEquals(Arrays.asList(this.member1, this.member2), actual);
+    }
+
+    @Test
+    public void getMembersTimedOutDeployment() {
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenReturn(this.members1);
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return this.members2;
+        });
+
+        Set<Member> expected = new HashSet<>();
+        expected.add(this.member1);
+
+        assertEquals(expected, this.infrastructure.getMembers());
+    }
+
+    @Test
+    public void getMembersTimedOutDeploymentNotLast() {
+        when(this.directorUtils.getDeployments()).thenReturn(this.deployments);
+        when(this.directorUtils.getMembers("deployment1")).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return this.members1;
+        });
+        when(this.directorUtils.getMembers("deployment2-uuid")).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return this.members2;
+        });
+
+        Set<Member> expected = new HashSet<>();
+        expected.add(this.member2);
+
+        assertEquals(expected, this.infrastructure.getMembers());
+    }
+
+    @After
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
 
     private static final class StubDirectorUtilsInfrastructure extends AbstractDirectorUtilsInfrastructure {
 
-        StubDirectorUtilsInfrastructure(DirectorUtils directorUtils) {
-            super(directorUtils);
+        StubDirectorUtilsInfrastructure(DirectorUtils directorUtils, ExecutorService executorService, Long snapshotTtl, Long timeout) {
+            super(directorUtils, executorService, snapshotTtl, timeout);
         }
 
         @Override
-        public void destroy(Member member) throws DestructionException {
+        protected void doDestroy(Member member) throws DestructionException {
 
         }
 
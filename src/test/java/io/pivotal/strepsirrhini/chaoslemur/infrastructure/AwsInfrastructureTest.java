@@ -16,13 +16,28 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.ec2.AmazonEC2;
+import com.amazonaws.services.ec2.model.InstanceStateChange;
 import com.amazonaws.services.ec2.model.TerminateInstancesRequest;
+import com.amazonaws.services.ec2.model.TerminateInstancesResult;
 import io.pivotal.strepsirrhini.chaoslemur.Member;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public final class AwsInfrastructureTest {
 
@@ -30,19 +45,78 @@ public final class AwsInfrastructureTest {
 
     private final DirectorUtils directorUtils = mock(DirectorUtils.class);
 
-    private final AwsInfrastructure infrastructure = new AwsInfrastructure(this.directorUtils, this.amazonEC2);
+    private final ExecutorService executorService = mock(ExecutorService.class);
+
+    private final AwsInfrastructure infrastructure = new AwsInfrastructure(this.directorUtils, this.executorService, 600L, 60L, this.amazonEC2);
 
     private final Member member = new Member("test-id", "test-deployment", "test-job", "test-name");
 
+    private final Member member2 = new Member("test-id-2", "test-deployment", "test-job", "test-name-2");
+
     @Test
     public void destroy() throws Exception {
         this.infrastructure.destroy(this.member);
-        verify(this.amazonEC2).terminateInstances(terminateInstancesRequest());
+        verify(this.amazonEC2).terminateInstances(terminateInstancesRequest(this.member));
+    }
+
+    @Test
+    public void destroyAll() {
+        when(this.amazonEC2.terminateInstances(terminateInstancesRequest(this.member, this.member2)))
+            .thenReturn(terminateInstancesResult(this.member, this.member2));
+
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Arrays.asList(this.member, this.member2));
+
+        assertTrue(failures.isEmpty());
+        verify(this.amazonEC2).terminateInstances(terminateInstancesRequest(this.member, this.member2));
+    }
+
+    @Test
+    public void destroyAllBatches() {
+        List<Member> members = IntStream.range(0, AwsInfrastructure.BATCH_SIZE + 1)
+            .mapToObj(i -> new Member(String.format("test-id-%d", i), "test-deployment", "test-job", String.format("test-name-%d", i)))
+            .collect(Collectors.toList());
+        when(this.amazonEC2.terminateInstances(any(TerminateInstancesRequest.class)))
+            .thenReturn(terminateInstancesResult(members.toArray(new Member[members.size()])));
+
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(members);
+
+        assertTrue(failures.isEmpty());
+        verify(this.amazonEC2, times(2)).terminateInstances(any(TerminateInstancesRequest.class));
+    }
+
+    @Test
+    public void destroyAllNotTerminated() {
+        when(this.amazonEC2.terminateInstances(terminateInstancesRequest(this.member, this.member2)))
+            .thenReturn(terminateInstancesResult(this.member));
+
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Arrays.asList(this.member, this.member2));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(this.member2));
     }
 
-    private TerminateInstancesRequest terminateInstancesRequest() {
-        return new TerminateInstancesRequest().withInstanceIds(this.member.getId());
+    @Test
+    public void destroyAllRequestFailed() {
+        when(this.amazonEC2.terminateInstances(terminateInstancesRequest(this.member, this.member2)))
+            .thenThrow(new AmazonServiceException("test-message"));
+        when(this.amazonEC2.terminateInstances(terminateInstancesRequest(this.member2)))
+            .thenThrow(new AmazonServiceException("test-message"));
+
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Arrays.asList(this.member, this.member2));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(this.member2));
+        verify(this.amazonEC2).terminateInstances(terminateInstancesRequest(this.member));
     }
 
+    private TerminateInstancesRequest terminateInstancesRequest(Member... members) {
+        return new TerminateInstancesRequest().withInstanceIds(Arrays.stream(members).map(Member::getId).collect(Collectors.toList()));
+    }
+
+    private TerminateInstancesResult terminateInstancesResult(Member... members) {
+        return new TerminateInstancesResult().withTerminatingInstances(Arrays.stream(members)
+            .map(member -> new InstanceStateChange().withInstanceId(member.getId()))
+            .collect(Collectors.toList()));
+    }
 
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class CachingInfrastructureTest {
+
+    private final Clock clock = mock(Clock.class);
+
+    private final CounterService counterService = mock(CounterService.class);
+
+    private final Infrastructure delegate = mock(Infrastructure.class);
+
+    private final ExecutorService executorService = mock(ExecutorService.class);
+
+    private final GaugeService gaugeService = mock(GaugeService.class);
+
+    private final CachingInfrastructure infrastructure = new CachingInfrastructure(this.clock, this.counterService, this.delegate, this.executorService, this.gaugeService, 60L);
+
+    private final Member member = new Member("test-id", "test-deployment", "test-job", "test-name");
+
+    private final Set<Member> members = Collections.singleton(this.member);
+
+    private final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+    @Test
+    public void destroy() throws DestructionException {
+        this.infrastructure.destroy(this.member);
+
+        verify(this.delegate).destroy(this.member);
+    }
+
+    @Test
+    public void destroyAll() {
+        this.infrastructure.destroyAll(Collections.singletonList(this.member));
+
+        verify(this.delegate).destroyAll(Collections.singletonList(this.member));
+    }
+
+    @Test
+    public void destroyAllEvictsMembers() {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        this.infrastructure.getMembers();
+
+        this.infrastructure.destroyAll(Collections.singletonList(this.member));
+
+        assertEquals(Collections.emptySet(), this.infrastructure.getMembers());
+        verify(this.delegate).getMembers();
+    }
+
+    @Test
+    public void destroyEvictsMember() throws DestructionException {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        this.infrastructure.getMembers();
+
+        this.infrastructure.destroy(this.member);
+
+        assertEquals(Collections.emptySet(), this.infrastructure.getMembers());
+        verify(this.delegate).getMembers();
+    }
+
+    @Test
+    public void getMembersExpired() {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        this.infrastructure.getMembers();
+
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(60));
+        assertEquals(this.members, this.infrastructure.getMembers());
+
+        verify(this.delegate, times(2)).getMembers();
+        verify(this.counterService, times(2)).increment("inventory.cache.miss");
+        verify(this.executorService, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void getMembersFresh() {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        this.infrastructure.getMembers();
+
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(10));
+        assertEquals(this.members, this.infrastructure.getMembers());
+
+        verify(this.delegate).getMembers();
+        verify(this.counterService).increment("inventory.cache.hit");
+        verify(this.gaugeService).submit("inventory.cache.age", 10_000);
+        verify(this.executorService, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void getMembersRefreshAfterEviction() {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        this.infrastructure.getMembers();
+
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(30));
+        this.infrastructure.getMembers();
+        when(this.delegate.getMembers()).thenAnswer(invocation -> {
+            this.infrastructure.destroyAll(Collections.singletonList(this.member));
+            return this.members;
+        });
+
+        verify(this.executorService).execute(this.runnableCaptor.capture());
+        this.runnableCaptor.getValue().run();
+
+        assertEquals(Collections.emptySet(), this.infrastructure.getMembers());
+    }
+
+    @Test
+    public void getMembersStale() {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        this.infrastructure.getMembers();
+
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(30));
+        assertEquals(this.members, this.infrastructure.getMembers());
+        assertEquals(this.members, this.infrastructure.getMembers());
+
+        verify(this.executorService).execute(this.runnableCaptor.capture());
+        this.runnableCaptor.getValue().run();
+
+        verify(this.delegate, times(2)).getMembers();
+
+        this.infrastructure.getMembers();
+        verify(this.delegate, times(2)).getMembers();
+    }
+
+    @Before
+    public void members() {
+        when(this.delegate.getMembers()).thenReturn(this.members);
+    }
+
+}
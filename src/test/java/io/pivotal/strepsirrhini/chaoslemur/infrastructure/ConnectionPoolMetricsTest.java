@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class ConnectionPoolMetricsTest {
+
+    private final ConnPoolControl<?> connectionPool = mock(ConnPoolControl.class);
+
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(this.connectionPool, "test.connections");
+
+    @Test
+    public void metrics() {
+        when(this.connectionPool.getTotalStats()).thenReturn(new PoolStats(1, 2, 3, 4));
+
+        Map<String, Number> expected = new HashMap<>();
+        expected.put("test.connections.available", 3);
+        expected.put("test.connections.leased", 1);
+        expected.put("test.connections.max", 4);
+        expected.put("test.connections.pending", 2);
+
+        Map<String, Number> actual = new HashMap<>();
+        for (Metric<?> metric : this.metrics.metrics()) {
+            actual.put(metric.getName(), metric.getValue());
+        }
+
+        assertEquals(expected, actual);
+    }
+
+}
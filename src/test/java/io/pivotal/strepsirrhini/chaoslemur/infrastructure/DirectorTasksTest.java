@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import org.junit.Test;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class DirectorTasksTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+
+    private final DirectorTasks tasks = new DirectorTasks(10L, this.restTemplate, URI.create("http://localhost"));
+
+    private final URI tasksUri = URI.create("http://localhost/tasks?state=queued,processing&verbose=2");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void await() throws InterruptedException {
+        when(this.restTemplate.getForObject(this.tasksUri, List.class))
+            .thenReturn(Collections.singletonList(Collections.singletonMap("id", 42)), Collections.emptyList());
+        when(this.restTemplate.getForObject(URI.create("http://localhost/tasks/42"), Map.class))
+            .thenReturn(Collections.singletonMap("state", "done"));
+
+        assertEquals("done", this.tasks.await(42L));
+        verify(this.restTemplate, times(1)).getForObject(URI.create("http://localhost/tasks/42"), Map.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void awaitPollFailure() throws InterruptedException {
+        when(this.restTemplate.getForObject(this.tasksUri, List.class))
+            .thenThrow(new RestClientException("test-message"))
+            .thenReturn(Collections.emptyList());
+        when(this.restTemplate.getForObject(URI.create("http://localhost/tasks/42"), Map.class))
+            .thenReturn(Collections.singletonMap("state", "cancelled"));
+
+        assertEquals("cancelled", this.tasks.await(42L));
+    }
+
+}
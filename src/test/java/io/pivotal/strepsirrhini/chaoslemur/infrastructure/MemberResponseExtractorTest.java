@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class MemberResponseExtractorTest {
+
+    private final MemberResponseExtractor extractor = new MemberResponseExtractor("test-deployment-uuid");
+
+    @Test
+    public void extractData() throws IOException {
+        String body = "[" +
+            "{\"agent_id\":\"test-agent-1\",\"cid\":\"test-cid-1\",\"job\":\"test-job-1\",\"index\":0,\"id\":\"test-id-1\"}," +
+            "{\"cid\":\"test-cid-2\",\"job\":\"test-job-2-partition-uuid\",\"index\":1,\"ips\":[\"10.0.0.1\"],\"disk\":{\"size\":1024}}" +
+            "]";
+
+        Set<Member> expected = new HashSet<>();
+        expected.add(new Member("test-cid-1", "test-deployment", "test-job-1", "test-job-1/0"));
+        expected.add(new Member("test-cid-2", "test-deployment", "test-job-2", "test-job-2-partition-uuid/1"));
+
+        assertEquals(expected, this.extractor.extractData(response(body)));
+    }
+
+    @Test
+    public void extractDataDelimited() throws IOException {
+        String body =
+            "{\"vm_cid\":\"test-cid-1\",\"job_name\":\"test-job-1\",\"index\":0,\"az\":\"z1\",\"ips\":[\"10.0.0.1\",\"10.0.0.2\"],\"job_state\":\"running\",\"resurrection_paused\":false,\"vitals\":{\"load\":[\"0.1\"]}}\n" +
+            "{\"vm_cid\":\"test-cid-2\",\"job_name\":\"test-job-2\",\"index\":1,\"az\":null,\"ips\":[],\"job_state\":\"unresponsive\",\"resurrection_paused\":true}\n";
+
+        List<Member> members = new ArrayList<>(new MemberResponseExtractor("test-deployment-uuid", true).extractData(response(body)));
+        members.sort(null);
+
+        assertEquals(2, members.size());
+        assertEquals("test-cid-1", members.get(0).getId());
+        assertEquals("test-job-1/0", members.get(0).getName());
+        assertEquals("z1", members.get(0).getAz());
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"), members.get(0).getIps());
+        assertEquals("running", members.get(0).getState());
+        assertFalse(members.get(0).isResurrectionPaused());
+        assertNull(members.get(1).getAz());
+        assertEquals(Collections.emptyList(), members.get(1).getIps());
+        assertEquals("unresponsive", members.get(1).getState());
+        assertTrue(members.get(1).isResurrectionPaused());
+    }
+
+    @Test
+    public void extractDataDelimitedEmpty() throws IOException {
+        assertEquals(new HashSet<>(), new MemberResponseExtractor("test-deployment-uuid", true).extractData(response("")));
+    }
+
+    @Test
+    public void extractDataEmpty() throws IOException {
+        assertEquals(new HashSet<>(), this.extractor.extractData(response("[]")));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void extractDataNotArray() throws IOException {
+        this.extractor.extractData(response("{}"));
+    }
+
+    private static MockClientHttpResponse response(String body) {
+        return new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+    }
+
+}
@@ -17,44 +17,116 @@
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
 import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.jclouds.collect.IterableWithMarkers;
+import org.jclouds.collect.PagedIterable;
+import org.jclouds.collect.PagedIterables;
 import org.jclouds.openstack.nova.v2_0.NovaApi;
 import org.jclouds.openstack.nova.v2_0.features.ServerApi;
+import org.jclouds.openstack.v2_0.domain.Resource;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import static org.mockito.Matchers.any;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class OpenStackInfrastructureTest {
 
+    private final ExecutorService destructionExecutor = Executors.newFixedThreadPool(2);
+
     private final DirectorUtils directorUtils = mock(DirectorUtils.class);
 
-    private final Member member = new Member("test-id", "test-deployment", "test-job", "test-name");
+    private final ExecutorService executorService = mock(ExecutorService.class);
+
+    private final Member member1 = new Member("test-id-1", "test-deployment", "test-job", "test-name-1");
+
+    private final Member member2 = new Member("test-id-2", "test-deployment", "test-job", "test-name-2");
+
+    private final Member member3 = new Member("test-id-3", "test-deployment", "test-job", "test-name-3");
+
+    private final Member member4 = new Member("test-id-4", "test-deployment", "test-job", "test-name-4");
 
     private final NovaApi novaApi = mock(NovaApi.class);
 
-    private final ServerApi serverApi = mock(ServerApi.class);
+    private final ServerApi serverApi1 = mock(ServerApi.class);
+
+    private final ServerApi serverApi2 = mock(ServerApi.class);
 
-    private final OpenStackInfrastructure infrastructure = new OpenStackInfrastructure(this.directorUtils, this.novaApi);
+    private final OpenStackInfrastructure infrastructure = new OpenStackInfrastructure(this.directorUtils, this.executorService, 600L, 60L, this.destructionExecutor,
+        this.novaApi);
 
     @Test
     public void destroy() throws DestructionException {
-        when(this.novaApi.getConfiguredRegions()).thenReturn(new HashSet<>(Arrays.asList("test-region-1", "test-region-2")));
+        this.infrastructure.destroy(this.member1);
+        this.infrastructure.destroy(this.member2);
+
+        verify(this.serverApi1).stop("test-id-1");
+        verify(this.serverApi1, never()).stop("test-id-2");
+        verify(this.serverApi2).stop("test-id-2");
+        verify(this.serverApi2, never()).stop("test-id-1");
+        verify(this.serverApi1).list();
+        verify(this.serverApi2).list();
+    }
+
+    @Test
+    public void destroyAll() {
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Arrays.asList(this.member1, this.member2, this.member3));
 
-        this.infrastructure.destroy(this.member);
+        assertEquals(Collections.singleton(this.member3), failures.keySet());
+        verify(this.serverApi1).stop("test-id-1");
+        verify(this.serverApi2).stop("test-id-2");
+        verify(this.serverApi1).list();
+        verify(this.serverApi2).list();
+    }
+
+    @Test
+    public void destroyAllUnknownServers() {
+        this.infrastructure.destroyAll(Arrays.asList(this.member1, this.member2));
+
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Arrays.asList(this.member1, this.member3, this.member4));
+
+        assertEquals(new HashSet<>(Arrays.asList(this.member3, this.member4)), failures.keySet());
+        verify(this.serverApi1, times(2)).list();
+        verify(this.serverApi2, times(2)).list();
+    }
 
-        verify(this.serverApi, times(2)).stop("test-id");
+    @Test(expected = DestructionException.class)
+    public void destroyUnknownServer() throws DestructionException {
+        try {
+            this.infrastructure.destroy(this.member3);
+        } finally {
+            verify(this.serverApi1).list();
+            verify(this.serverApi1, never()).stop("test-id-3");
+        }
     }
 
     @Before
     public void setUp() throws Exception {
-        when(this.novaApi.getServerApi(any(String.class))).thenReturn(this.serverApi);
+        when(this.novaApi.getConfiguredRegions()).thenReturn(new HashSet<>(Arrays.asList("test-region-1", "test-region-2")));
+        when(this.novaApi.getServerApi("test-region-1")).thenReturn(this.serverApi1);
+        when(this.novaApi.getServerApi("test-region-2")).thenReturn(this.serverApi2);
+        when(this.serverApi1.list()).thenAnswer(invocation -> servers("test-id-1"));
+        when(this.serverApi2.list()).thenAnswer(invocation -> servers("test-id-2"));
+    }
+
+    @After
+    public void tearDown() {
+        this.destructionExecutor.shutdownNow();
+    }
+
+    private static PagedIterable<Resource> servers(String id) {
+        return PagedIterables.onlyPage(IterableWithMarkers.from(Collections.singletonList(Resource.builder().id(id).name(id).build())));
     }
 
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.vmware.vim25.RuntimeFault;
+import com.vmware.vim25.mo.ServerConnection;
+import com.vmware.vim25.mo.ServiceInstance;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ServiceInstancePoolTest {
+
+    private final Clock clock = mock(Clock.class);
+
+    private final CounterService counterService = mock(CounterService.class);
+
+    private final ServerConnection serverConnection1 = mock(ServerConnection.class);
+
+    private final ServiceInstance serviceInstance1 = mock(ServiceInstance.class);
+
+    private final ServiceInstance serviceInstance2 = mock(ServiceInstance.class);
+
+    private final ServiceInstanceFactory serviceInstanceFactory = mock(ServiceInstanceFactory.class);
+
+    private final ServiceInstancePool pool = new ServiceInstancePool(this.clock, this.counterService, 60L, this.serviceInstanceFactory, 1);
+
+    @Test
+    public void get() throws IOException {
+        assertSame(this.serviceInstance1, this.pool.get());
+        assertSame(this.serviceInstance1, this.pool.get());
+
+        verify(this.serviceInstanceFactory).create();
+        verify(this.serviceInstance1, never()).currentTime();
+        verify(this.counterService).increment("vsphere.session.login");
+        verify(this.counterService).increment("vsphere.session.reuse");
+    }
+
+    @Test
+    public void getExpired() throws IOException {
+        when(this.serviceInstance1.currentTime()).thenThrow(new RuntimeFault());
+
+        this.pool.get();
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(60));
+
+        assertSame(this.serviceInstance2, this.pool.get());
+        verify(this.serverConnection1).logout();
+        verify(this.counterService, times(2)).increment("vsphere.session.login");
+    }
+
+    @Test
+    public void getHeartbeat() throws IOException {
+        this.pool.get();
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(60));
+
+        assertSame(this.serviceInstance1, this.pool.get());
+        verify(this.serviceInstance1).currentTime();
+        verify(this.serviceInstanceFactory).create();
+    }
+
+    @Test
+    public void getRoundRobin() throws IOException {
+        ServiceInstancePool pool = new ServiceInstancePool(this.clock, this.counterService, 60L, this.serviceInstanceFactory, 2);
+
+        assertSame(this.serviceInstance1, pool.get());
+        assertSame(this.serviceInstance2, pool.get());
+        assertSame(this.serviceInstance1, pool.get());
+
+        verify(this.serviceInstanceFactory, times(2)).create();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        when(this.serviceInstanceFactory.create()).thenReturn(this.serviceInstance1, this.serviceInstance2);
+        when(this.serviceInstance1.getServerConnection()).thenReturn(this.serverConnection1);
+    }
+
+    @Test
+    public void shutdown() throws IOException {
+        this.pool.get();
+        this.pool.shutdown();
+
+        verify(this.serverConnection1).logout();
+    }
+
+}
@@ -16,37 +16,53 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
+import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
-import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public final class StandardDirectorUtilsTest {
 
-    private final Map<String, String> deployment = Collections.singletonMap("name", "test-deployment");
+    private final Map<String, Object> deployment = new HashMap<>();
 
     private final RestTemplate restTemplate = mock(RestTemplate.class);
 
     private final URI root = URI.create("http://localhost");
 
-    private final StandardDirectorUtils directorUtils = new StandardDirectorUtils(this.restTemplate, this.root);
+    private final StandardDirectorUtils directorUtils = new StandardDirectorUtils(this.restTemplate, this.root, "basic", 0L);
 
-    private final Map<String, String> vm = Collections.singletonMap("cid", "test-cid");
+    private final Member member = new Member("test-cid", "test-deployment", "test-job", "test-job/0");
+
+    {
+        this.deployment.put("name", "test-deployment");
+        this.deployment.put("releases", Collections.singletonList(Collections.singletonMap("version", "1")));
+        this.deployment.put("stemcells", Collections.singletonList(Collections.singletonMap("version", "2")));
+        this.deployment.put("cloud_config", "latest");
+    }
 
     @Test
-    public void constructor() throws GeneralSecurityException {
-        new StandardDirectorUtils("test-host", "test-username", "test-password", new HashSet<>());
+    public void constructor() {
+        new StandardDirectorUtils("test-host", "test-username", "test-password", new HashSet<>(), new PoolingHttpClientConnectionManager(), 10, 30L, 30L, 60, "basic",
+            1000L);
     }
 
     @Test
@@ -54,21 +70,62 @@ public final class StandardDirectorUtilsTest {
         when(this.restTemplate.getForObject(URI.create("http://localhost/deployments"), List.class))
             .thenReturn(Arrays.asList(this.deployment));
 
-        Set<String> expected = new HashSet<>();
-        expected.add("test-deployment");
+        Map<String, String> expected = new HashMap<>();
+        expected.put("test-deployment", "releases: [{version=1}], stemcells: [{version=2}], cloud_config: latest");
 
         assertEquals(expected, this.directorUtils.getDeployments());
     }
 
     @Test
-    public void getVirtualMachines() {
-        Set<Map<String, String>> expected = new HashSet<>();
-        expected.add(this.vm);
+    public void getMembers() {
+        Set<Member> expected = Collections.singleton(this.member);
+
+        when(this.restTemplate.execute(eq(URI.create("http://localhost/deployments/test-deployment/vms")), eq(HttpMethod.GET), isNull(RequestCallback.class),
+            any(MemberResponseExtractor.class)))
+            .thenReturn(expected);
 
-        when(this.restTemplate.getForObject(URI.create("http://localhost/deployments/test-deployment/vms"), Set.class))
+        assertEquals(expected, this.directorUtils.getMembers("test-deployment"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getMembersFromTask() {
+        StandardDirectorUtils directorUtils = new StandardDirectorUtils(this.restTemplate, this.root, "full", 10L);
+        Set<Member> expected = Collections.singleton(this.member);
+
+        when(this.restTemplate.execute(eq(URI.create("http://localhost/deployments/test-deployment/vms?format=full")), eq(HttpMethod.GET), isNull(RequestCallback.class),
+            any(ResponseExtractor.class)))
+            .thenReturn(URI.create("https://localhost:25555/tasks/42"));
+        when(this.restTemplate.getForObject(URI.create("http://localhost/tasks?state=queued,processing&verbose=2"), List.class))
+            .thenReturn(Collections.singletonList(Collections.singletonMap("id", 42)), Collections.emptyList());
+        when(this.restTemplate.getForObject(URI.create("http://localhost/tasks/42"), Map.class))
+            .thenReturn(Collections.singletonMap("state", "done"));
+        when(this.restTemplate.execute(eq(URI.create("http://localhost/tasks/42/output?type=result")), eq(HttpMethod.GET), isNull(RequestCallback.class),
+            any(MemberResponseExtractor.class)))
             .thenReturn(expected);
 
-        assertEquals(expected, this.directorUtils.getVirtualMachines("test-deployment"));
+        assertEquals(expected, directorUtils.getMembers("test-deployment"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @SuppressWarnings("unchecked")
+    public void getMembersFromTaskFailed() {
+        StandardDirectorUtils directorUtils = new StandardDirectorUtils(this.restTemplate, this.root, "full", 10L);
+
+        when(this.restTemplate.execute(eq(URI.create("http://localhost/deployments/test-deployment/vms?format=full")), eq(HttpMethod.GET), isNull(RequestCallback.class),
+            any(ResponseExtractor.class)))
+            .thenReturn(URI.create("https://localhost:25555/tasks/42"));
+        when(this.restTemplate.getForObject(URI.create("http://localhost/tasks?state=queued,processing&verbose=2"), List.class))
+            .thenReturn(Collections.emptyList());
+        when(this.restTemplate.getForObject(URI.create("http://localhost/tasks/42"), Map.class))
+            .thenReturn(Collections.singletonMap("state", "error"));
+
+        directorUtils.getMembers("test-deployment");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFormat() {
+        new StandardDirectorUtils(this.restTemplate, this.root, "test-format", 0L);
     }
 
 }
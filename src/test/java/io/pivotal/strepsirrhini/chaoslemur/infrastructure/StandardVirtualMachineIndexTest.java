@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
+
+import com.vmware.vim25.DynamicProperty;
+import com.vmware.vim25.ManagedObjectReference;
+import com.vmware.vim25.ObjectContent;
+import com.vmware.vim25.PropertyFilterSpec;
+import com.vmware.vim25.mo.Folder;
+import com.vmware.vim25.mo.PropertyCollector;
+import com.vmware.vim25.mo.ServerConnection;
+import com.vmware.vim25.mo.ServiceInstance;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class StandardVirtualMachineIndexTest {
+
+    private final Clock clock = mock(Clock.class);
+
+    private final PropertyCollector propertyCollector = mock(PropertyCollector.class);
+
+    private final ManagedObjectReference reference1 = managedObjectReference("vm-1");
+
+    private final ManagedObjectReference reference2 = managedObjectReference("vm-2");
+
+    private final Folder rootFolder = mock(Folder.class);
+
+    private final ServerConnection serverConnection = mock(ServerConnection.class);
+
+    private final ServiceInstance serviceInstance = mock(ServiceInstance.class);
+
+    private final ServiceInstancePool serviceInstancePool = new ServiceInstancePool(this.clock, mock(CounterService.class), 60L, () -> this.serviceInstance, 1);
+
+    private final StandardVirtualMachineIndex index = new StandardVirtualMachineIndex(this.clock, 30L, this.serviceInstancePool, 300L);
+
+    @Test
+    public void get() throws IOException {
+        assertSame(this.reference1, this.index.get("test-name-1").getMOR());
+        assertSame(this.reference2, this.index.get("test-name-2").getMOR());
+
+        verify(this.propertyCollector).retrieveProperties(any(PropertyFilterSpec[].class));
+    }
+
+    @Test
+    public void getExpired() throws IOException {
+        this.index.get("test-name-1");
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(300));
+        this.index.get("test-name-1");
+
+        verify(this.propertyCollector, times(2)).retrieveProperties(any(PropertyFilterSpec[].class));
+    }
+
+    @Test
+    public void getMissing() throws IOException {
+        this.index.get("test-name-1");
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(30));
+
+        assertNull(this.index.get("test-name-3"));
+        verify(this.propertyCollector, times(2)).retrieveProperties(any(PropertyFilterSpec[].class));
+    }
+
+    @Test
+    public void getMissingWithinRebuildInterval() throws IOException {
+        this.index.get("test-name-1");
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(29));
+
+        assertNull(this.index.get("test-name-3"));
+        assertNull(this.index.get("test-name-4"));
+        verify(this.propertyCollector).retrieveProperties(any(PropertyFilterSpec[].class));
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        when(this.clock.instant()).thenReturn(Instant.ofEpochSecond(0));
+        when(this.rootFolder.getMOR()).thenReturn(managedObjectReference("group-d1"));
+        when(this.serviceInstance.getPropertyCollector()).thenReturn(this.propertyCollector);
+        when(this.serviceInstance.getRootFolder()).thenReturn(this.rootFolder);
+        when(this.serviceInstance.getServerConnection()).thenReturn(this.serverConnection);
+        when(this.propertyCollector.retrieveProperties(any(PropertyFilterSpec[].class)))
+            .thenReturn(new ObjectContent[]{objectContent(this.reference1, "test-name-1"), objectContent(this.reference2, "test-name-2")});
+    }
+
+    private static ManagedObjectReference managedObjectReference(String value) {
+        ManagedObjectReference reference = new ManagedObjectReference();
+        reference.setType("VirtualMachine");
+        reference.setVal(value);
+        return reference;
+    }
+
+    private static ObjectContent objectContent(ManagedObjectReference reference, String name) {
+        DynamicProperty property = new DynamicProperty();
+        property.setName("name");
+        property.setVal(name);
+
+        ObjectContent content = new ObjectContent();
+        content.setObj(reference);
+        content.setPropSet(new DynamicProperty[]{property});
+        return content;
+    }
+
+}
@@ -16,18 +16,31 @@
 
 package io.pivotal.strepsirrhini.chaoslemur.infrastructure;
 
+import com.vmware.vim25.DynamicProperty;
 import com.vmware.vim25.LocalizedMethodFault;
-import com.vmware.vim25.TaskInfo;
+import com.vmware.vim25.ManagedObjectReference;
+import com.vmware.vim25.ObjectContent;
+import com.vmware.vim25.PropertyFilterSpec;
 import com.vmware.vim25.TaskInfoState;
-import com.vmware.vim25.mo.InventoryNavigator;
+import com.vmware.vim25.mo.PropertyCollector;
+import com.vmware.vim25.mo.ServerConnection;
+import com.vmware.vim25.mo.ServiceInstance;
 import com.vmware.vim25.mo.Task;
 import com.vmware.vim25.mo.VirtualMachine;
 import io.pivotal.strepsirrhini.chaoslemur.Member;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,46 +48,130 @@ public final class VSphereInfrastructureTest {
 
     private final DirectorUtils directorUtils = mock(DirectorUtils.class);
 
-    private final InventoryNavigator inventoryNavigator = mock(InventoryNavigator.class);
-
-    private final InventoryNavigatorFactory inventoryNavigatorFactory = mock(InventoryNavigatorFactory.class);
-
-    private final VSphereInfrastructure infrastructure = new VSphereInfrastructure(this.directorUtils, this.inventoryNavigatorFactory);
+    private final ExecutorService executorService = mock(ExecutorService.class);
 
     private final LocalizedMethodFault localizedMethodFault = mock(LocalizedMethodFault.class);
 
     private final Member member = new Member("test-id", "test-deployment", "test-job", "test-name");
 
+    private final Member member2 = new Member("test-id-2", "test-deployment", "test-job", "test-name-2");
+
+    private final PropertyCollector propertyCollector = mock(PropertyCollector.class);
+
+    private final ManagedObjectReference reference = managedObjectReference("task-1");
+
+    private final ManagedObjectReference reference2 = managedObjectReference("task-2");
+
+    private final ServerConnection serverConnection = mock(ServerConnection.class);
+
+    private final ServiceInstance serviceInstance = mock(ServiceInstance.class);
+
     private final Task task = mock(Task.class);
 
-    private final TaskInfo taskInfo = mock(TaskInfo.class);
+    private final Task task2 = mock(Task.class);
 
     private final VirtualMachine virtualMachine = mock(VirtualMachine.class);
 
+    private final VirtualMachine virtualMachine2 = mock(VirtualMachine.class);
+
+    private final VirtualMachineIndex virtualMachineIndex = mock(VirtualMachineIndex.class);
+
+    private final VSphereInfrastructure infrastructure = new VSphereInfrastructure(this.directorUtils, this.executorService, 600L, 60L, 0L, 60L,
+        this.virtualMachineIndex);
+
     @Test
     public void destroy() throws DestructionException, IOException {
-        when(this.inventoryNavigatorFactory.create()).thenReturn(this.inventoryNavigator);
-        when(this.inventoryNavigator.searchManagedEntity("VirtualMachine", "test-id")).thenReturn(this.virtualMachine);
+        when(this.virtualMachineIndex.get("test-id")).thenReturn(this.virtualMachine);
         when(this.virtualMachine.powerOffVM_Task()).thenReturn(this.task);
-        when(this.virtualMachine.destroy_Task()).thenReturn(this.task);
-        when(this.task.getTaskInfo()).thenReturn(this.taskInfo);
-        when(this.taskInfo.getState()).thenReturn(TaskInfoState.success);
+        when(this.propertyCollector.retrieveProperties(any(PropertyFilterSpec[].class)))
+            .thenReturn(new ObjectContent[]{objectContent(this.reference, TaskInfoState.success, null)});
 
         this.infrastructure.destroy(this.member);
 
         verify(this.virtualMachine).powerOffVM_Task();
     }
 
+    @Test
+    public void destroyAll() throws IOException {
+        when(this.virtualMachineIndex.get("test-id")).thenReturn(this.virtualMachine);
+        when(this.virtualMachineIndex.get("test-id-2")).thenReturn(this.virtualMachine2);
+        when(this.virtualMachine.powerOffVM_Task()).thenReturn(this.task);
+        when(this.virtualMachine2.powerOffVM_Task()).thenReturn(this.task2);
+        when(this.propertyCollector.retrieveProperties(any(PropertyFilterSpec[].class)))
+            .thenReturn(new ObjectContent[]{
+                objectContent(this.reference, TaskInfoState.running, null),
+                objectContent(this.reference2, TaskInfoState.error, this.localizedMethodFault)})
+            .thenReturn(new ObjectContent[]{objectContent(this.reference, TaskInfoState.success, null)});
+
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Arrays.asList(this.member, this.member2));
+
+        assertEquals(Collections.singleton(this.member2), failures.keySet());
+        verify(this.virtualMachine).powerOffVM_Task();
+        verify(this.virtualMachine2).powerOffVM_Task();
+        verify(this.propertyCollector, times(2)).retrieveProperties(any(PropertyFilterSpec[].class));
+    }
+
+    @Test
+    public void destroyAllTimeout() throws IOException {
+        VSphereInfrastructure infrastructure = new VSphereInfrastructure(this.directorUtils, this.executorService, 600L, 60L, 0L, -1L,
+            this.virtualMachineIndex);
+        when(this.virtualMachineIndex.get("test-id")).thenReturn(this.virtualMachine);
+        when(this.virtualMachine.powerOffVM_Task()).thenReturn(this.task);
+        when(this.propertyCollector.retrieveProperties(any(PropertyFilterSpec[].class)))
+            .thenReturn(new ObjectContent[]{objectContent(this.reference, TaskInfoState.running, null)});
+
+        Map<Member, DestructionException> failures = infrastructure.destroyAll(Collections.singletonList(this.member));
+
+        assertEquals(Collections.singleton(this.member), failures.keySet());
+    }
+
+    @Test
+    public void destroyAllVirtualMachineNotFound() {
+        Map<Member, DestructionException> failures = this.infrastructure.destroyAll(Collections.singletonList(this.member));
+
+        assertEquals(Collections.singleton(this.member), failures.keySet());
+    }
+
+    @Before
+    public void setUp() {
+        when(this.serverConnection.getServiceInstance()).thenReturn(this.serviceInstance);
+        when(this.serviceInstance.getPropertyCollector()).thenReturn(this.propertyCollector);
+        when(this.task.getMOR()).thenReturn(this.reference);
+        when(this.task.getServerConnection()).thenReturn(this.serverConnection);
+        when(this.task2.getMOR()).thenReturn(this.reference2);
+        when(this.task2.getServerConnection()).thenReturn(this.serverConnection);
+    }
+
     @Test(expected = DestructionException.class)
     public void taskFailure() throws DestructionException, IOException {
-        when(this.inventoryNavigatorFactory.create()).thenReturn(this.inventoryNavigator);
-        when(this.inventoryNavigator.searchManagedEntity("VirtualMachine", "test-id")).thenReturn(this.virtualMachine);
+        when(this.virtualMachineIndex.get("test-id")).thenReturn(this.virtualMachine);
         when(this.virtualMachine.powerOffVM_Task()).thenReturn(this.task);
-        when(this.task.getTaskInfo()).thenReturn(this.taskInfo);
-        when(this.taskInfo.getState()).thenReturn(TaskInfoState.error);
-        when(this.taskInfo.getError()).thenReturn(this.localizedMethodFault);
+        when(this.propertyCollector.retrieveProperties(any(PropertyFilterSpec[].class)))
+            .thenReturn(new ObjectContent[]{objectContent(this.reference, TaskInfoState.error, this.localizedMethodFault)});
 
         this.infrastructure.destroy(this.member);
     }
 
+    private static ManagedObjectReference managedObjectReference(String value) {
+        ManagedObjectReference reference = new ManagedObjectReference();
+        reference.setType("Task");
+        reference.setVal(value);
+        return reference;
+    }
+
+    private static ObjectContent objectContent(ManagedObjectReference reference, TaskInfoState state, LocalizedMethodFault error) {
+        DynamicProperty stateProperty = new DynamicProperty();
+        stateProperty.setName("info.state");
+        stateProperty.setVal(state);
+
+        DynamicProperty errorProperty = new DynamicProperty();
+        errorProperty.setName("info.error");
+        errorProperty.setVal(error);
+
+        ObjectContent content = new ObjectContent();
+        content.setObj(reference);
+        content.setPropSet(error == null ? new DynamicProperty[]{stateProperty} : new DynamicProperty[]{errorProperty, stateProperty});
+        return content;
+    }
+
 }
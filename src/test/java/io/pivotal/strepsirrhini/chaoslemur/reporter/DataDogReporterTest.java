@@ -26,6 +26,8 @@ import org.springframework.web.client.RestTemplate;
 import java.util.Collections;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
@@ -61,6 +63,18 @@ public final class DataDogReporterTest {
         this.mockServer.verify();
     }
 
+    @Test
+    public void sendEventWithSeed() {
+        this.mockServer.expect(requestTo(URI))
+            .andExpect(method(HttpMethod.POST))
+            .andExpect(content().string(containsString("Seed: 42")))
+            .andRespond(withSuccess("resultSuccess", MediaType.TEXT_PLAIN));
+
+        this.dataDog.sendEvent(new Event(UUID.randomUUID(), Collections.emptyList(), 42L));
+
+        this.mockServer.verify();
+    }
+
     @Before
     public void setup() {
         RestTemplate restTemplate = new RestTemplate();